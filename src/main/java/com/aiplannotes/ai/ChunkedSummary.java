@@ -0,0 +1,21 @@
+package com.aiplannotes.ai;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * A note summary together with the chunk summaries it was reduced
+ * from; {@code chunks} is empty for notes summarised in one piece.
+ */
+@Value
+public class ChunkedSummary {
+    String summaryText;
+    List<Chunk> chunks;
+
+    @Value
+    public static class Chunk {
+        String chunkHash;
+        String summaryText;
+    }
+}
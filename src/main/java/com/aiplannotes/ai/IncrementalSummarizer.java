@@ -0,0 +1,167 @@
+package com.aiplannotes.ai;
+
+import com.aiplannotes.entity.AiSummaryChunk;
+import com.aiplannotes.repository.AiSummaryChunkRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Map-reduce summarisation of long notes. The content is split into chunks on
+ * paragraph and sentence boundaries, the chunks are submitted to the gateway
+ * together, and the chunk summaries are reduced into the note summary, in
+ * several rounds if they are still too long for one call. Every round is
+ * chained on the gateway futures, so no thread is held while it runs except
+ * the caller's, which waits for the finished summary.
+ * <p>
+ * Chunk summaries already stored for the note are reused by hash, so after an
+ * edit only the changed chunks go back through the generator, followed by
+ * the reduce. Short notes are summarised in one piece.
+ */
+@Component
+public class IncrementalSummarizer {
+
+    private static final String CHUNK_SEPARATOR = "\n\n";
+
+    @Autowired
+    private SummaryGateway summaryGateway;
+
+    @Autowired
+    private SummaryCache summaryCache;
+
+    @Autowired
+    private AiSummaryChunkRepository aiSummaryChunkRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.summary.chunking.min-length:12000}")
+    private int minChunkedLength;
+
+    @Value("${ai.summary.chunking.max-chunk-length:1500}")
+    private int maxChunkLength;
+
+    private Counter reusedChunks;
+
+    private Counter summarisedChunks;
+
+    @PostConstruct
+    void init() {
+        reusedChunks = Counter.builder("ai.summary.chunks")
+                .description("Chunk summaries of long notes")
+                .tag("outcome", "reused")
+                .register(meterRegistry);
+        summarisedChunks = Counter.builder("ai.summary.chunks")
+                .description("Chunk summaries of long notes")
+                .tag("outcome", "summarised")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Summarise a note, reusing the chunk summaries stored for it where the chunk is unchanged
+     * @param contentHash {@link SummaryCache#contentHash} of the title and content
+     */
+    public ChunkedSummary summarize(Long noteId, String title, String content, String contentHash) {
+        List<String> texts = content.length() < minChunkedLength
+                ? List.of() : TextChunker.chunks(content, maxChunkLength);
+        if (texts.size() < 2) {
+            return new ChunkedSummary(summaryCache.getOrGenerate(contentHash, title, content), List.of());
+        }
+
+        String version = summaryGateway.getGeneratorVersion();
+        Map<String, String> stored = new HashMap<>();
+        for (AiSummaryChunk chunk : aiSummaryChunkRepository.findByNoteIdOrderByChunkIndex(noteId)) {
+            if (version.equals(chunk.getGeneratorVersion())) {
+                stored.put(chunk.getChunkHash(), chunk.getSummaryText());
+            }
+        }
+
+        // Map: queue every missing chunk before waiting, so the gateway can batch them
+        List<String> chunkHashes = new ArrayList<>(texts.size());
+        List<CompletableFuture<String>> chunkSummaries = new ArrayList<>(texts.size());
+        for (String text : texts) {
+            String chunkHash = SummaryCache.contentHash(title, text);
+            String summary = stored.get(chunkHash);
+            chunkHashes.add(chunkHash);
+            if (summary != null) {
+                reusedChunks.increment();
+                chunkSummaries.add(CompletableFuture.completedFuture(summary));
+            } else {
+                // Identical text elsewhere may already be cached; only generator calls count as summarised
+                chunkSummaries.add(summaryCache.getOrGenerateAsync(chunkHash, title, text, summarisedChunks::increment));
+            }
+        }
+
+        CompletableFuture<ChunkedSummary> summary = allOf(chunkSummaries).thenCompose(summaries -> {
+            List<ChunkedSummary.Chunk> chunks = new ArrayList<>(texts.size());
+            for (int i = 0; i < texts.size(); i++) {
+                chunks.add(new ChunkedSummary.Chunk(chunkHashes.get(i), summaries.get(i)));
+            }
+            return reduce(title, summaries).thenApply(summaryText -> new ChunkedSummary(summaryText, chunks));
+        });
+        ChunkedSummary chunkedSummary = join(summary);
+        summaryCache.put(contentHash, chunkedSummary.getSummaryText());
+        return chunkedSummary;
+    }
+
+    /**
+     * Reduce chunk summaries to one. While they are too long for a single call,
+     * neighbouring summaries are grouped up to the chunk length and each group
+     * is summarised in parallel; the next round starts when the last group of
+     * this one completes.
+     */
+    private CompletableFuture<String> reduce(String title, List<String> summaries) {
+        if (summaries.size() > 1 && String.join(CHUNK_SEPARATOR, summaries).length() > maxChunkLength) {
+            List<String> groups = group(summaries);
+            // Unless every summary is already as long as a chunk, so grouping cannot shrink the input
+            if (groups.size() < summaries.size()) {
+                return allOf(groups.stream().map(group -> summaryGateway.submit(title, group)).toList())
+                        .thenCompose(reduced -> reduce(title, reduced));
+            }
+        }
+        return summaryGateway.submit(title, String.join(CHUNK_SEPARATOR, summaries));
+    }
+
+    private static CompletableFuture<List<String>> allOf(List<CompletableFuture<String>> futures) {
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .thenApply(done -> futures.stream().map(CompletableFuture::join).toList());
+    }
+
+    private List<String> group(List<String> summaries) {
+        List<String> groups = new ArrayList<>();
+        StringBuilder group = new StringBuilder();
+        for (String summary : summaries) {
+            if (group.length() > 0 && group.length() + CHUNK_SEPARATOR.length() + summary.length() > maxChunkLength) {
+                groups.add(group.toString());
+                group.setLength(0);
+            }
+            if (group.length() > 0) {
+                group.append(CHUNK_SEPARATOR);
+            }
+            group.append(summary);
+        }
+        groups.add(group.toString());
+        return groups;
+    }
+
+    private static <T> T join(CompletableFuture<T> summary) {
+        try {
+            return summary.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.aiplannotes.ai;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deterministic local generator (V1.0 simple implementation).
+ * Extracts the first 200 characters or generates a simple description.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.summary.generator", havingValue = "mock", matchIfMissing = true)
+public class MockSummaryGenerator implements SummaryGenerator {
+
+    @Override
+    public String getModelName() {
+        return "mock-v1.0";
+    }
+
+    @Override
+    public String generate(String title, String content) {
+        if (content == null || content.isEmpty()) {
+            return "这是一篇关于" + title + "的笔记，主要内容包括...";
+        }
+        
+        // Extract first 200 characters
+        if (content.length() <= 200) {
+            return content;
+        }
+        
+        return content.substring(0, 200) + "...";
+    }
+}
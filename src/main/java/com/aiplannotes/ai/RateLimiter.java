@@ -0,0 +1,31 @@
+package com.aiplannotes.ai;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Evenly spaced rate limiter: callers of {@link #acquire()} are released at
+ * most {@code permitsPerSecond} times per second, without bursts.
+ */
+public class RateLimiter {
+
+    private final long intervalNanos;
+
+    private long nextFreeSlot = System.nanoTime();
+
+    public RateLimiter(double permitsPerSecond) {
+        this.intervalNanos = (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond);
+    }
+
+    public void acquire() throws InterruptedException {
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long slot = Math.max(nextFreeSlot, now);
+            nextFreeSlot = slot + intervalNanos;
+            waitNanos = slot - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
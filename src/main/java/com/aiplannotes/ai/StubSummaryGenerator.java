@@ -0,0 +1,89 @@
+package com.aiplannotes.ai;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Deterministic in-process generator for tests and load tests. Each call
+ * sleeps for a fixed latency plus a per-note latency and a latency per 1000
+ * input characters, so batching, chunking and the resilience settings can be
+ * exercised without a model server. Streaming
+ * emits the first token after the fixed latency, then one token of
+ * {@code token-size} characters every {@code token-interval}.
+ */
+@Component
+@ConditionalOnProperty(name = "ai.summary.generator", havingValue = "stub")
+public class StubSummaryGenerator implements SummaryGenerator {
+
+    private static final int SUMMARY_LENGTH = 100;
+
+    @Value("${ai.summary.stub.latency:0ms}")
+    private Duration latency;
+
+    @Value("${ai.summary.stub.per-item-latency:0ms}")
+    private Duration perItemLatency;
+
+    @Value("${ai.summary.stub.per-kilochar-latency:0ms}")
+    private Duration perKilocharLatency;
+
+    @Value("${ai.summary.stub.token-size:4}")
+    private int tokenSize;
+
+    @Value("${ai.summary.stub.token-interval:0ms}")
+    private Duration tokenInterval;
+
+    @Override
+    public String getModelName() {
+        return "stub-v1";
+    }
+
+    @Override
+    public String generate(String title, String content) {
+        return generateBatch(List.of(new SummaryInput(title, content))).get(0);
+    }
+
+    @Override
+    public List<String> generateBatch(List<SummaryInput> inputs) {
+        long characters = inputs.stream()
+                .mapToLong(input -> input.getContent() == null ? 0 : input.getContent().length())
+                .sum();
+        sleep(latency.plus(perItemLatency.multipliedBy(inputs.size()))
+                .plus(perKilocharLatency.multipliedBy(characters).dividedBy(1000)));
+        return inputs.stream().map(StubSummaryGenerator::summarize).toList();
+    }
+
+    @Override
+    public void generateStream(String title, String content, Consumer<String> onToken) {
+        String summary = summarize(new SummaryInput(title, content));
+        sleep(latency);
+        for (int start = 0; start < summary.length(); start += tokenSize) {
+            if (start > 0) {
+                sleep(tokenInterval);
+            }
+            onToken.accept(summary.substring(start, Math.min(summary.length(), start + tokenSize)));
+        }
+    }
+
+    private static String summarize(SummaryInput input) {
+        String content = input.getContent() == null ? "" : input.getContent().strip();
+        String body = content.length() <= SUMMARY_LENGTH ? content : content.substring(0, SUMMARY_LENGTH) + "...";
+        return "[" + input.getTitle() + "] " + body;
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while generating summary", e);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.aiplannotes.ai;
+
+import com.aiplannotes.repository.AiSummaryRepository;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Content-addressed summary cache shared by all notes, keyed by generator
+ * version and the hash of the summarised title and content. On a miss it
+ * falls back to any stored summary with the same key before calling the
+ * generator. Concurrent requests for the same content share one generation;
+ * failed generations are not cached.
+ */
+@Component
+public class SummaryCache {
+
+    @Autowired
+    private SummaryGateway summaryGateway;
+
+    @Autowired
+    private AiSummaryRepository aiSummaryRepository;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${ai.summary.cache.maximum-size:10000}")
+    private long maximumSize;
+
+    private AsyncCache<String, String> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .buildAsync();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache.synchronous(), "summaryCache"));
+    }
+
+    /**
+     * @return the hex SHA-256 of everything a generator sees for a note
+     */
+    public static String contentHash(String title, String content) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(title.getBytes(StandardCharsets.UTF_8));
+            digest.update((byte) 0);
+            if (content != null) {
+                digest.update(content.getBytes(StandardCharsets.UTF_8));
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Return the summary for this content from the cache or the database, generating it only if neither has it
+     */
+    public String getOrGenerate(String contentHash, String title, String content) {
+        CompletableFuture<String> summary = getOrGenerateAsync(contentHash, title, content);
+        try {
+            return summary.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Like {@link #getOrGenerate}, but without waiting for a generation, so that
+     * several can be queued together and batched by the gateway
+     */
+    public CompletableFuture<String> getOrGenerateAsync(String contentHash, String title, String content) {
+        return getOrGenerateAsync(contentHash, title, content, () -> { });
+    }
+
+    /**
+     * @param onGenerate run before the generator is called, i.e. only when neither the cache nor the database has it
+     */
+    public CompletableFuture<String> getOrGenerateAsync(String contentHash, String title, String content,
+                                                        Runnable onGenerate) {
+        String version = summaryGateway.getGeneratorVersion();
+        return cache.get(key(contentHash), (key, executor) ->
+                aiSummaryRepository.findFirstByContentHashAndGeneratorVersion(contentHash, version)
+                        .map(stored -> CompletableFuture.completedFuture(stored.getSummaryText()))
+                        .orElseGet(() -> {
+                            onGenerate.run();
+                            return summaryGateway.submit(title, content);
+                        }));
+    }
+
+    /**
+     * @return the cached summary for this content if it is already available, without generating it
+     */
+    public Optional<String> getIfReady(String contentHash) {
+        CompletableFuture<String> summary = cache.getIfPresent(key(contentHash));
+        if (summary == null || !summary.isDone() || summary.isCompletedExceptionally()) {
+            return Optional.empty();
+        }
+        return Optional.of(summary.join());
+    }
+
+    public void put(String contentHash, String summaryText) {
+        cache.put(key(contentHash), CompletableFuture.completedFuture(summaryText));
+    }
+
+    private String key(String contentHash) {
+        return summaryGateway.getGeneratorVersion() + ":" + contentHash;
+    }
+
+    public long getHitCount() {
+        return cache.synchronous().stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.synchronous().stats().missCount();
+    }
+}
@@ -0,0 +1,389 @@
+package com.aiplannotes.ai;
+
+import com.aiplannotes.exception.BusinessException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Single entry point to the configured {@link SummaryGenerator}.
+ * <ul>
+ *   <li>At most {@code ai.summary.batch.queue-capacity} requests wait to be
+ *       batched; further requests are rejected with 503 rather than queued
+ *       without limit behind a stalled generator.</li>
+ *   <li>Requests are coalesced: a dispatcher thread groups up to
+ *       {@code ai.summary.batch.max-size} pending notes, waiting at most
+ *       {@code ai.summary.batch.max-wait} for a batch to fill, into one
+ *       {@link SummaryGenerator#generateBatch} call.</li>
+ *   <li>At most {@code ai.summary.max-concurrent-calls} generator calls run at
+ *       once (bulkhead); further batches wait and keep growing meanwhile.</li>
+ *   <li>Each call is abandoned and interrupted after {@code ai.summary.call-timeout}.</li>
+ *   <li>Failed and timed-out calls feed a {@link CircuitBreaker} that fails
+ *       requests fast while the generator is unhealthy.</li>
+ * </ul>
+ * Streamed generations bypass the batcher but share the bulkhead, timeout
+ * and circuit breaker. Every requested summary is counted in
+ * {@code ai.summary.generations} by mode and outcome, and every generator
+ * call is timed in {@code ai.summary.generation.duration}.
+ */
+@Slf4j
+@Component
+public class SummaryGateway {
+
+    @Autowired
+    private SummaryGenerator summaryGenerator;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${ai.summary.batch.max-size:8}")
+    private int maxBatchSize;
+
+    @Value("${ai.summary.batch.max-wait:20ms}")
+    private Duration maxBatchWait;
+
+    @Value("${ai.summary.batch.queue-capacity:1000}")
+    private int queueCapacity;
+
+    @Value("${ai.summary.call-timeout:30s}")
+    private Duration callTimeout;
+
+    @Value("${ai.summary.max-concurrent-calls:2}")
+    private int maxConcurrentCalls;
+
+    @Value("${ai.summary.circuit-breaker.failure-threshold:5}")
+    private int failureThreshold;
+
+    @Value("${ai.summary.circuit-breaker.open-duration:30s}")
+    private Duration openDuration;
+
+    private BlockingQueue<PendingSummary> queue;
+
+    private Semaphore bulkhead;
+
+    private CircuitBreaker circuitBreaker;
+
+    private ExecutorService callExecutor;
+
+    private ScheduledThreadPoolExecutor timeoutScheduler;
+
+    private Thread dispatcher;
+
+    private Timer batchCallTimer;
+
+    private Timer streamCallTimer;
+
+    @PostConstruct
+    void init() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        bulkhead = new Semaphore(maxConcurrentCalls);
+        circuitBreaker = new CircuitBreaker(failureThreshold, openDuration);
+        // Unbounded pool; the bulkhead limits how many calls are in flight
+        callExecutor = Executors.newCachedThreadPool(daemonThreads("ai-summary-call-"));
+        timeoutScheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("ai-summary-timeout-"));
+        // Timeouts of finished calls are cancelled; drop them from the queue right away
+        timeoutScheduler.setRemoveOnCancelPolicy(true);
+        dispatcher = daemonThreads("ai-summary-batcher-").newThread(this::dispatchLoop);
+        dispatcher.start();
+
+        Gauge.builder("ai.summary.queue.size", queue, BlockingQueue::size)
+                .description("Summaries waiting to be batched into a generator call")
+                .register(meterRegistry);
+        batchCallTimer = callTimer("batch");
+        streamCallTimer = callTimer("stream");
+    }
+
+    private Timer callTimer(String mode) {
+        return Timer.builder("ai.summary.generation.duration")
+                .description("Time the generator took to answer one call")
+                .tag("mode", mode)
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param outcome success, failure, timeout or rejected
+     */
+    private void countGenerations(String mode, String outcome, int notes) {
+        Counter.builder("ai.summary.generations")
+                .tag("mode", mode)
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .increment(notes);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        dispatcher.interrupt();
+        callExecutor.shutdownNow();
+        timeoutScheduler.shutdownNow();
+    }
+
+    public String getModelName() {
+        return summaryGenerator.getModelName();
+    }
+
+    public String getGeneratorVersion() {
+        return summaryGenerator.getVersion();
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    /**
+     * Queue a note for summarisation
+     * @return a future completed with the summary text, or exceptionally with a
+     *         {@link BusinessException} when the call is rejected, fails or times out
+     */
+    public CompletableFuture<String> submit(String title, String content) {
+        PendingSummary pending = new PendingSummary(new SummaryInput(title, content));
+        if (!queue.offer(pending)) {
+            countGenerations("batch", "rejected", 1);
+            return CompletableFuture.failedFuture(
+                    new BusinessException(503, "Summary service is busy, please retry later."));
+        }
+        return pending.result;
+    }
+
+    /**
+     * Blocking variant of {@link #submit} for callers already off the request thread
+     */
+    public String summarize(String title, String content) {
+        try {
+            return submit(title, content).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Start a streamed generation on a call thread. Rejected immediately, rather
+     * than queued, when the bulkhead is full or the circuit is open.
+     * @throws BusinessException 503 when the call cannot be started
+     */
+    public SummaryStream stream(String title, String content, SummaryStreamListener listener) {
+        if (!bulkhead.tryAcquire()) {
+            countGenerations("stream", "rejected", 1);
+            throw new BusinessException(503, "Summary service is busy, please retry later.");
+        }
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            countGenerations("stream", "rejected", 1);
+            throw new BusinessException(503, "Summary service is unavailable, please retry later.");
+        }
+        
+        SummaryStream stream = new SummaryStream();
+        AtomicBoolean settled = new AtomicBoolean();
+        // Taken by whichever releases the slot: the call once it starts running,
+        // or the cancellation if the call is cancelled before it ever starts
+        AtomicBoolean slotClaimed = new AtomicBoolean();
+        CompletableFuture<Void> finished = new CompletableFuture<>();
+        
+        FutureTask<Void> call = new FutureTask<>(() -> {
+            if (!slotClaimed.compareAndSet(false, true)) {
+                return;
+            }
+            Timer.Sample sample = Timer.start(meterRegistry);
+            try {
+                StringBuilder summaryText = new StringBuilder();
+                summaryGenerator.generateStream(title, content, token -> {
+                    if (stream.isCancelled()) {
+                        throw new CancellationException();
+                    }
+                    summaryText.append(token);
+                    try {
+                        listener.onToken(token);
+                    } catch (CancellationException e) {
+                        stream.cancel();
+                        throw e;
+                    }
+                });
+                if (!stream.isCancelled() && settled.compareAndSet(false, true)) {
+                    circuitBreaker.recordSuccess();
+                    countGenerations("stream", "success", 1);
+                    listener.onComplete(summaryText.toString());
+                }
+            } catch (RuntimeException e) {
+                // A cancelled stream (e.g. the client went away) says nothing about generator health
+                if (stream.isCancelled()) {
+                    if (settled.compareAndSet(false, true)) {
+                        circuitBreaker.recordIgnored();
+                    }
+                } else if (settled.compareAndSet(false, true)) {
+                    circuitBreaker.recordFailure();
+                    countGenerations("stream", "failure", 1);
+                    listener.onError(e);
+                }
+            } finally {
+                sample.stop(streamCallTimer);
+                bulkhead.release();
+            }
+        }, null) {
+            @Override
+            protected void done() {
+                if (isCancelled() && slotClaimed.compareAndSet(false, true)) {
+                    if (settled.compareAndSet(false, true)) {
+                        circuitBreaker.recordIgnored();
+                    }
+                    bulkhead.release();
+                }
+                finished.complete(null);
+            }
+        };
+        callExecutor.execute(call);
+        stream.attach(call);
+        
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule(() -> {
+            if (settled.compareAndSet(false, true)) {
+                circuitBreaker.recordFailure();
+                countGenerations("stream", "timeout", 1);
+                stream.cancel();
+                listener.onError(new BusinessException(504, "Summary generation timed out."));
+            }
+        }, callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        finished.whenComplete((ignored, e) -> timeout.cancel(false));
+        
+        return stream;
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            List<PendingSummary> batch = null;
+            try {
+                batch = nextBatch();
+                dispatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (RuntimeException e) {
+                // Fail only this batch; the dispatcher must keep serving later ones
+                log.error("Failed to dispatch a batch of summaries", e);
+                if (batch != null) {
+                    failAll(batch, new BusinessException(500, "Summary generation failed."));
+                }
+            }
+        }
+    }
+
+    private List<PendingSummary> nextBatch() throws InterruptedException {
+        List<PendingSummary> batch = new ArrayList<>(maxBatchSize);
+        batch.add(queue.take());
+        long deadline = System.nanoTime() + maxBatchWait.toNanos();
+        while (batch.size() < maxBatchSize) {
+            PendingSummary next = queue.poll(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            batch.add(next);
+        }
+        return batch;
+    }
+
+    private void dispatch(List<PendingSummary> batch) throws InterruptedException {
+        bulkhead.acquire();
+        if (!circuitBreaker.tryAcquire()) {
+            bulkhead.release();
+            countGenerations("batch", "rejected", batch.size());
+            failAll(batch, new BusinessException(503, "Summary service is unavailable, please retry later."));
+            return;
+        }
+        
+        // Whichever of the call and its timeout finishes first reports the outcome
+        AtomicBoolean settled = new AtomicBoolean();
+        List<SummaryInput> inputs = batch.stream().map(pending -> pending.input).toList();
+        
+        Future<?> call;
+        try {
+            call = callExecutor.submit(() -> {
+                Timer.Sample sample = Timer.start(meterRegistry);
+                try {
+                    List<String> summaries = summaryGenerator.generateBatch(inputs);
+                    if (summaries.size() != batch.size()) {
+                        throw new IllegalStateException("Generator returned " + summaries.size()
+                                + " summaries for " + batch.size() + " notes");
+                    }
+                    if (settled.compareAndSet(false, true)) {
+                        circuitBreaker.recordSuccess();
+                        countGenerations("batch", "success", batch.size());
+                        for (int i = 0; i < batch.size(); i++) {
+                            batch.get(i).result.complete(summaries.get(i));
+                        }
+                    }
+                } catch (RuntimeException e) {
+                    if (settled.compareAndSet(false, true)) {
+                        circuitBreaker.recordFailure();
+                        countGenerations("batch", "failure", batch.size());
+                        failAll(batch, e);
+                    }
+                } finally {
+                    sample.stop(batchCallTimer);
+                    // Released only when the generator actually returns, so a hung
+                    // call keeps occupying its slot
+                    bulkhead.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            circuitBreaker.recordIgnored();
+            bulkhead.release();
+            throw e;
+        }
+        
+        ScheduledFuture<?> timeout = timeoutScheduler.schedule(() -> {
+            if (settled.compareAndSet(false, true)) {
+                circuitBreaker.recordFailure();
+                countGenerations("batch", "timeout", batch.size());
+                call.cancel(true);
+                failAll(batch, new BusinessException(504, "Summary generation timed out."));
+            }
+        }, callTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        CompletableFuture.allOf(batch.stream().map(pending -> pending.result).toArray(CompletableFuture[]::new))
+                .whenComplete((ignored, e) -> timeout.cancel(false));
+    }
+
+    private static void failAll(List<PendingSummary> batch, RuntimeException e) {
+        batch.forEach(pending -> pending.result.completeExceptionally(e));
+    }
+
+    private static CustomizableThreadFactory daemonThreads(String prefix) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory(prefix);
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    private static class PendingSummary {
+        private final SummaryInput input;
+        private final CompletableFuture<String> result = new CompletableFuture<>();
+
+        private PendingSummary(SummaryInput input) {
+            this.input = input;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.aiplannotes.ai;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Produces the summary text for a note. Implementations may be slow (a model
+ * call), so they are only invoked through {@link SummaryGateway}, never inside
+ * a request thread or a database transaction.
+ * <p>
+ * The active implementation is selected with {@code ai.summary.generator}.
+ */
+public interface SummaryGenerator {
+
+    /**
+     * @return the model identifier stored in AiSummary.modelUsed
+     */
+    String getModelName();
+
+    /**
+     * Identifies the output of this generator; stored summaries from another
+     * version are regenerated. Change it whenever the model or prompt changes.
+     */
+    default String getVersion() {
+        return getModelName();
+    }
+
+    String generate(String title, String content);
+
+    /**
+     * Summarise several notes in one model call. Must return one summary per
+     * input, in input order. The default makes one call per note.
+     */
+    default List<String> generateBatch(List<SummaryInput> inputs) {
+        return inputs.stream()
+                .map(input -> generate(input.getTitle(), input.getContent()))
+                .toList();
+    }
+
+    /**
+     * Generate a summary incrementally, passing each token to {@code onToken}
+     * as soon as it is available. Implementations must stop promptly when the
+     * calling thread is interrupted. The default emits the whole summary as a
+     * single token.
+     */
+    default void generateStream(String title, String content, Consumer<String> onToken) {
+        onToken.accept(generate(title, content));
+    }
+}
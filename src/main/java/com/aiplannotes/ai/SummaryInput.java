@@ -0,0 +1,12 @@
+package com.aiplannotes.ai;
+
+import lombok.Value;
+
+/**
+ * One note to be summarised.
+ */
+@Value
+public class SummaryInput {
+    String title;
+    String content;
+}
@@ -0,0 +1,50 @@
+package com.aiplannotes.ai;
+
+import com.aiplannotes.dto.SummaryResponse;
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.UUID;
+
+/**
+ * In-memory state of one asynchronous summary generation. Written by a
+ * summary worker and read by polling requests, hence the volatile fields.
+ */
+@Getter
+public class SummaryJob {
+
+    public enum Status {
+        PENDING, RUNNING, SUCCEEDED, FAILED
+    }
+
+    private final String id = UUID.randomUUID().toString();
+    private final Long userId;
+    private final Long noteId;
+    private final Instant createdAt = Instant.now();
+    private volatile Status status = Status.PENDING;
+    private volatile SummaryResponse summary;
+    private volatile String error;
+
+    public SummaryJob(Long userId, Long noteId) {
+        this.userId = userId;
+        this.noteId = noteId;
+    }
+
+    public boolean isFinished() {
+        return status == Status.SUCCEEDED || status == Status.FAILED;
+    }
+
+    void markRunning() {
+        status = Status.RUNNING;
+    }
+
+    void complete(SummaryResponse summary) {
+        this.summary = summary;
+        status = Status.SUCCEEDED;
+    }
+
+    void fail(String error) {
+        this.error = error;
+        status = Status.FAILED;
+    }
+}
@@ -0,0 +1,116 @@
+package com.aiplannotes.ai;
+
+import com.aiplannotes.dto.SummaryResponse;
+import com.aiplannotes.exception.BusinessException;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs summary jobs on a bounded worker pool and keeps their status for
+ * polling. A note has at most one job in flight; resubmitting while it is
+ * pending or running returns the existing job. Finished jobs are kept for
+ * the configured retention.
+ */
+@Slf4j
+@Component
+public class SummaryJobManager {
+
+    @Value("${ai.summary.worker-threads:16}")
+    private int workerThreads;
+
+    @Value("${ai.summary.queue-capacity:100}")
+    private int queueCapacity;
+
+    @Value("${ai.summary.job-retention:1h}")
+    private Duration jobRetention;
+
+    @Value("${ai.summary.max-retained-jobs:10000}")
+    private long maxRetainedJobs;
+
+    private ThreadPoolExecutor executor;
+
+    private Cache<String, SummaryJob> jobs;
+
+    private final Map<Long, SummaryJob> activeJobsByNote = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void init() {
+        executor = new ThreadPoolExecutor(workerThreads, workerThreads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("ai-summary-"));
+        jobs = Caffeine.newBuilder()
+                .maximumSize(maxRetainedJobs)
+                .expireAfterWrite(jobRetention)
+                .build();
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Queue a summary generation for a note, or return the job already in flight for it
+     * @throws BusinessException 503 when the worker queue is full
+     */
+    public SummaryJob submit(Long userId, Long noteId, Supplier<SummaryResponse> task) {
+        SummaryJob job = new SummaryJob(userId, noteId);
+        SummaryJob active = activeJobsByNote.putIfAbsent(noteId, job);
+        if (active != null) {
+            return active;
+        }
+        
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job, task));
+        } catch (RejectedExecutionException e) {
+            activeJobsByNote.remove(noteId, job);
+            jobs.invalidate(job.getId());
+            throw new BusinessException(503, "Summary service is busy, please retry later.");
+        }
+        return job;
+    }
+
+    /**
+     * Register a job that is already finished, e.g. because the stored summary is up to date
+     */
+    public SummaryJob completed(Long userId, Long noteId, SummaryResponse summary) {
+        SummaryJob job = new SummaryJob(userId, noteId);
+        job.complete(summary);
+        jobs.put(job.getId(), job);
+        return job;
+    }
+
+    public Optional<SummaryJob> find(String jobId) {
+        return Optional.ofNullable(jobs.getIfPresent(jobId));
+    }
+
+    private void run(SummaryJob job, Supplier<SummaryResponse> task) {
+        job.markRunning();
+        try {
+            job.complete(task.get());
+        } catch (BusinessException e) {
+            job.fail(e.getMessage());
+        } catch (RuntimeException e) {
+            log.warn("Summary job {} for note {} failed", job.getId(), job.getNoteId(), e);
+            job.fail("Summary generation failed.");
+        } finally {
+            activeJobsByNote.remove(job.getNoteId(), job);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.aiplannotes.ai;
+
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Handle to a running streamed generation.
+ */
+public class SummaryStream {
+
+    private final AtomicBoolean cancelled = new AtomicBoolean();
+    private volatile Future<?> call;
+
+    void attach(Future<?> call) {
+        this.call = call;
+        if (cancelled.get()) {
+            call.cancel(true);
+        }
+    }
+
+    /**
+     * Stop the generation and interrupt the worker thread running it
+     */
+    public void cancel() {
+        if (cancelled.compareAndSet(false, true) && call != null) {
+            call.cancel(true);
+        }
+    }
+
+    public boolean isCancelled() {
+        return cancelled.get();
+    }
+}
@@ -0,0 +1,19 @@
+package com.aiplannotes.ai;
+
+/**
+ * Receives the output of a streamed summary generation. Exactly one of
+ * {@link #onComplete} and {@link #onError} is called, unless the stream is
+ * cancelled first, in which case neither is.
+ */
+public interface SummaryStreamListener {
+
+    /**
+     * May throw {@link java.util.concurrent.CancellationException} to cancel
+     * the stream, e.g. when the client has gone away
+     */
+    void onToken(String token);
+
+    void onComplete(String summaryText);
+
+    void onError(RuntimeException e);
+}
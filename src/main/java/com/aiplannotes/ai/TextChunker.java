@@ -0,0 +1,123 @@
+package com.aiplannotes.ai;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * Splits note content into the chunks that are summarised separately, on
+ * paragraph and sentence boundaries, including Chinese punctuation.
+ */
+public final class TextChunker {
+
+    // One or more blank lines separate paragraphs
+    private static final Pattern PARAGRAPH_BREAK = Pattern.compile("\\R[\\h]*\\R\\s*");
+
+    // Chinese and Western sentence terminators; a line break inside a paragraph also ends a sentence
+    private static final String SENTENCE_END = "。！？；…!?;\n";
+
+    // Closing quotes and brackets, and repeated terminators as in "……" or "？！",
+    // that belong to the sentence they follow
+    private static final String CLOSING = "”’」』）】》)]\"'…！？!?";
+
+    private TextChunker() {
+    }
+
+    /**
+     * @return the non-blank paragraphs of the content, trimmed, in order
+     */
+    public static List<String> paragraphs(String content) {
+        List<String> paragraphs = new ArrayList<>();
+        if (content == null) {
+            return paragraphs;
+        }
+        for (String paragraph : PARAGRAPH_BREAK.split(content)) {
+            String trimmed = paragraph.strip();
+            if (!trimmed.isEmpty()) {
+                paragraphs.add(trimmed);
+            }
+        }
+        return paragraphs;
+    }
+
+    /**
+     * Split content into chunks of at most {@code maxChunkLength} characters. Each
+     * paragraph that fits is one chunk, so an edit only changes the chunks of the
+     * paragraphs it touches; longer paragraphs are packed sentence by sentence,
+     * and only a single sentence longer than the limit is cut mid-sentence.
+     */
+    public static List<String> chunks(String content, int maxChunkLength) {
+        List<String> chunks = new ArrayList<>();
+        for (String paragraph : paragraphs(content)) {
+            if (paragraph.length() <= maxChunkLength) {
+                chunks.add(paragraph);
+                continue;
+            }
+            StringBuilder chunk = new StringBuilder();
+            for (String sentence : sentences(paragraph)) {
+                if (chunk.length() > 0 && chunk.length() + sentence.length() > maxChunkLength) {
+                    addChunk(chunks, chunk);
+                }
+                int start = 0;
+                while (sentence.length() - start > maxChunkLength) {
+                    int end = start + maxChunkLength;
+                    // Keep surrogate pairs together
+                    if (Character.isHighSurrogate(sentence.charAt(end - 1))) {
+                        end--;
+                    }
+                    chunk.append(sentence, start, end);
+                    addChunk(chunks, chunk);
+                    start = end;
+                }
+                chunk.append(sentence, start, sentence.length());
+            }
+            addChunk(chunks, chunk);
+        }
+        return chunks;
+    }
+
+    /**
+     * @return the sentences of a paragraph, each with its terminator and any closing quotes
+     */
+    static List<String> sentences(String paragraph) {
+        List<String> sentences = new ArrayList<>();
+        int start = 0;
+        int length = paragraph.length();
+        for (int i = 0; i < length; i++) {
+            char c = paragraph.charAt(i);
+            // A full stop only ends a sentence before whitespace, so "3.14" and "e.g" stay whole
+            boolean end = SENTENCE_END.indexOf(c) >= 0
+                    || (c == '.' && (i + 1 == length || Character.isWhitespace(paragraph.charAt(i + 1))));
+            if (end) {
+                int next = i + 1;
+                while (next < length && CLOSING.indexOf(paragraph.charAt(next)) >= 0) {
+                    next++;
+                }
+                sentences.add(paragraph.substring(start, next));
+                start = next;
+                i = next - 1;
+            }
+        }
+        if (start < length) {
+            sentences.add(paragraph.substring(start));
+        }
+        return sentences;
+    }
+
+    private static void addChunk(List<String> chunks, StringBuilder chunk) {
+        String text = chunk.toString().strip();
+        if (!text.isEmpty()) {
+            chunks.add(text);
+        }
+        chunk.setLength(0);
+    }
+
+    /**
+     * Compare two versions of a note's content paragraph by paragraph, ignoring
+     * the whitespace around and between paragraphs
+     * @return whether any paragraph was added, removed, edited or moved
+     */
+    public static boolean paragraphsChanged(String previous, String current) {
+        return !paragraphs(previous).equals(paragraphs(current));
+    }
+}
@@ -0,0 +1,82 @@
+package com.aiplannotes.config;
+
+import com.aiplannotes.monitoring.SqlStatementListener;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.NanoTimeStopwatchFactory;
+import net.ttddyy.dsproxy.proxy.ProxyConfig;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Routes every JDBC statement, from Hibernate and JdbcTemplate alike, through
+ * {@link SqlStatementListener} by wrapping the DataSource in a proxy. The pool
+ * itself is unchanged and still reachable through {@code unwrap} for its metrics.
+ */
+@Configuration
+public class DataSourceProxyConfig {
+
+    // Static so registering the post-processor does not create this configuration early
+    @Bean
+    public static BeanPostProcessor dataSourceProxyPostProcessor(ObjectProvider<SqlStatementListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProxyDataSource)) {
+                    ProxyDataSource proxy = ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(new LazyListener(listener))
+                            .build();
+                    // Time executions with System.nanoTime so ExecutionInfo carries nanoseconds, not milliseconds
+                    proxy.setProxyConfig(ProxyConfig.Builder.from(proxy.getProxyConfig())
+                            .stopwatchFactory(new NanoTimeStopwatchFactory())
+                            .build());
+                    return proxy;
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Resolves the listener on the first statement rather than while the DataSource
+     * is being post-processed, so wrapping the pool does not pull the listener and
+     * its dependencies into the context early.
+     */
+    private static class LazyListener implements QueryExecutionListener {
+
+        private final ObjectProvider<SqlStatementListener> listener;
+
+        private volatile SqlStatementListener resolved;
+
+        LazyListener(ObjectProvider<SqlStatementListener> listener) {
+            this.listener = listener;
+        }
+
+        private SqlStatementListener listener() {
+            SqlStatementListener current = resolved;
+            if (current == null) {
+                current = listener.getObject();
+                resolved = current;
+            }
+            return current;
+        }
+
+        @Override
+        public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            listener().beforeQuery(execInfo, queryInfoList);
+        }
+
+        @Override
+        public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+            listener().afterQuery(execInfo, queryInfoList);
+        }
+    }
+}
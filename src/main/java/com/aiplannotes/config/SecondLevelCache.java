@@ -0,0 +1,81 @@
+package com.aiplannotes.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.JCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cache.jcache.internal.JCacheRegionFactory;
+import org.hibernate.cache.spi.RegionFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.cache.CacheManager;
+import java.util.List;
+
+/**
+ * Explicit eviction from the Hibernate second-level cache, and cache metrics
+ * per cached entity region. The regions are Caffeine JCache caches with
+ * statistics enabled in {@code application.conf}; their hits, misses, puts
+ * and evictions are published as {@code cache.*} meters, plus a hit ratio
+ * gauge. None of this needs {@code hibernate.generate_statistics}.
+ */
+@Component
+public class SecondLevelCache {
+
+    /**
+     * Regions named by the {@code @Cache} annotations on the cached entities
+     */
+    private static final List<String> ENTITY_REGIONS = List.of("categories", "ai_summaries");
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    void init() {
+        RegionFactory regionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry().getService(RegionFactory.class);
+        CacheManager cacheManager = ((JCacheRegionFactory) regionFactory).getCacheManager();
+        for (String region : ENTITY_REGIONS) {
+            JCacheMetrics.monitor(meterRegistry, cacheManager.getCache(region));
+            FunctionCounter hits = meterRegistry.get("cache.gets").tags("cache", region, "result", "hit").functionCounter();
+            FunctionCounter misses = meterRegistry.get("cache.gets").tags("cache", region, "result", "miss").functionCounter();
+            Gauge.builder("hibernate.second.level.cache.hit.ratio", () -> hitRatio(hits.count(), misses.count()))
+                    .description("Share of second-level cache lookups answered from the cache")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+    }
+
+    private static double hitRatio(double hits, double misses) {
+        double lookups = hits + misses;
+        return lookups == 0 ? 0 : hits / lookups;
+    }
+
+    /**
+     * Evict an entity once the current transaction has committed, or at once
+     * outside a transaction. Writes through the session already update the
+     * cache; evicting after commit makes the next read load the committed row
+     * whatever the cache strategy, and never lets a reader repopulate the
+     * entry from the row as it was before the commit.
+     */
+    public void evictAfterCommit(Class<?> entityClass, Object id) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            entityManagerFactory.getCache().evict(entityClass, id);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(entityClass, id);
+            }
+        });
+    }
+}
@@ -1,11 +1,17 @@
 package com.aiplannotes.config;
 
 import com.aiplannotes.security.JwtAuthenticationFilter;
+import jakarta.servlet.DispatcherType;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
 import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
 import org.springframework.security.config.annotation.authentication.configuration.AuthenticationConfiguration;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
@@ -15,8 +21,12 @@ import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+
 @Configuration
 @EnableWebSecurity
 public class SecurityConfig {
@@ -27,6 +37,10 @@ public class SecurityConfig {
     @Autowired
     private UserDetailsService userDetailsService;
 
+    // Bearer token a Prometheus server scrapes with; the endpoint is closed while it is empty
+    @Value("${metrics.prometheus.scrape-token:}")
+    private String prometheusScrapeToken;
+
     @Bean
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
@@ -35,6 +49,9 @@ public class SecurityConfig {
             .csrf(csrf -> csrf.disable())
             .authorizeHttpRequests(auth -> auth
                 .requestMatchers("/api/auth/register", "/api/auth/login").permitAll()
+                .requestMatchers(EndpointRequest.to(PrometheusScrapeEndpoint.class)).access(withScrapeToken(prometheusScrapeToken))
+                // Completion dispatch of streamed (SSE) responses; the original request was authorized
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -46,6 +63,19 @@ public class SecurityConfig {
         return http.build();
     }
 
+    /**
+     * Grants access to requests carrying the scrape token. The remote address is
+     * not trusted: behind a reverse proxy on the same host every request is local.
+     */
+    private static AuthorizationManager<RequestAuthorizationContext> withScrapeToken(String token) {
+        byte[] expected = ("Bearer " + token).getBytes(StandardCharsets.UTF_8);
+        return (authentication, context) -> {
+            String header = context.getRequest().getHeader("Authorization");
+            return new AuthorizationDecision(!token.isEmpty() && header != null
+                    && MessageDigest.isEqual(expected, header.getBytes(StandardCharsets.UTF_8)));
+        };
+    }
+
     @Bean
     public PasswordEncoder passwordEncoder() {
         return new BCryptPasswordEncoder();
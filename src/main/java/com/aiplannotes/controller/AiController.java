@@ -1,13 +1,17 @@
 package com.aiplannotes.controller;
 
+import com.aiplannotes.ai.SummaryJob;
 import com.aiplannotes.dto.ApiResponse;
 import com.aiplannotes.dto.GenerateSummaryRequest;
-import com.aiplannotes.dto.SummaryResponse;
+import com.aiplannotes.dto.SummaryJobResponse;
 import com.aiplannotes.service.AiService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 @RestController
 @RequestMapping("/api/ai")
@@ -17,8 +21,24 @@ public class AiController {
     private AiService aiService;
     
     @PostMapping("/summarize")
-    public ResponseEntity<ApiResponse<SummaryResponse>> generateSummary(@Valid @RequestBody GenerateSummaryRequest request) {
-        SummaryResponse response = aiService.generateSummary(request);
-        return ResponseEntity.ok(ApiResponse.success("AI summary generated successfully.", response));
+    public ResponseEntity<ApiResponse<SummaryJobResponse>> generateSummary(@Valid @RequestBody GenerateSummaryRequest request) {
+        SummaryJobResponse response = aiService.submitSummaryJob(request);
+        if (SummaryJob.Status.SUCCEEDED.name().equals(response.getStatus())) {
+            return ResponseEntity.ok(ApiResponse.success("AI summary is up to date.", response));
+        }
+        return ResponseEntity.status(HttpStatus.ACCEPTED)
+                .header("Location", "/api/ai/jobs/" + response.getJobId())
+                .body(ApiResponse.success(202, "AI summary generation started.", response));
+    }
+    
+    @PostMapping(value = "/summarize/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamSummary(@Valid @RequestBody GenerateSummaryRequest request) {
+        return aiService.streamSummary(request);
+    }
+    
+    @GetMapping("/jobs/{jobId}")
+    public ResponseEntity<ApiResponse<SummaryJobResponse>> getSummaryJob(@PathVariable String jobId) {
+        SummaryJobResponse response = aiService.getSummaryJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(response));
     }
 }
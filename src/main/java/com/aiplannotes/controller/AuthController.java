@@ -29,4 +29,16 @@ public class AuthController {
         LoginResponse response = authService.login(request);
         return ResponseEntity.ok(ApiResponse.success("Login successful.", response));
     }
+
+    @PutMapping("/time-zone")
+    public ResponseEntity<Void> updateTimeZone(@Valid @RequestBody UpdateTimeZoneRequest request) {
+        authService.updateTimeZone(request);
+        return ResponseEntity.noContent().build();
+    }
+
+    @PostMapping("/revoke")
+    public ResponseEntity<Void> revokeTokens() {
+        authService.revokeTokens();
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -0,0 +1,40 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.service.ExportService;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.async.WebAsyncTask;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/api/export")
+public class ExportController {
+    
+    @Autowired
+    private ExportService exportService;
+    
+    // Only exports may stream this long; other async requests keep the default timeout
+    @Value("${export.timeout:30m}")
+    private Duration exportTimeout;
+    
+    @GetMapping
+    public WebAsyncTask<Void> export(@RequestParam(required = false) String format, HttpServletResponse response) {
+        ExportService.Export export = exportService.export(format);
+        response.setContentType(export.getContentType().toString());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                ContentDisposition.attachment().filename(export.getFileName()).build().toString());
+        return new WebAsyncTask<>(exportTimeout.toMillis(), () -> {
+            export.getBody().writeTo(response.getOutputStream());
+            response.flushBuffer();
+            return null;
+        });
+    }
+}
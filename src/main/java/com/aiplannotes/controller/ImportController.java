@@ -0,0 +1,44 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.ApiResponse;
+import com.aiplannotes.dto.ImportJobResponse;
+import com.aiplannotes.service.ImportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/import/jobs")
+public class ImportController {
+    
+    @Autowired
+    private ImportService importService;
+    
+    @PostMapping
+    public ResponseEntity<ApiResponse<ImportJobResponse>> createJob() {
+        ImportJobResponse response = importService.createJob();
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header("Location", "/api/import/jobs/" + response.getJobId())
+                .body(ApiResponse.success(201, "Import job created.", response));
+    }
+    
+    // The raw request body is the file, read as it arrives
+    @PutMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> upload(
+            @PathVariable String jobId,
+            @RequestParam(required = false) String format,
+            @RequestParam(required = false) String category,
+            InputStream upload) {
+        ImportJobResponse response = importService.importNotes(jobId, format, category, upload);
+        return ResponseEntity.ok(ApiResponse.success("Import completed.", response));
+    }
+    
+    @GetMapping("/{jobId}")
+    public ResponseEntity<ApiResponse<ImportJobResponse>> getJob(@PathVariable String jobId) {
+        ImportJobResponse response = importService.getJob(jobId);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+}
@@ -4,7 +4,10 @@ import com.aiplannotes.dto.ApiResponse;
 import com.aiplannotes.dto.CreateNoteRequest;
 import com.aiplannotes.dto.NoteDetailResponse;
 import com.aiplannotes.dto.NoteListItemResponse;
+import com.aiplannotes.dto.NoteListPage;
+import com.aiplannotes.dto.NoteSearchResponse;
 import com.aiplannotes.dto.UpdateNoteRequest;
+import com.aiplannotes.service.NoteSearchService;
 import com.aiplannotes.service.NoteService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +24,9 @@ public class NoteController {
     @Autowired
     private NoteService noteService;
     
+    @Autowired
+    private NoteSearchService noteSearchService;
+    
     @PostMapping
     public ResponseEntity<ApiResponse<NoteDetailResponse>> createNote(@Valid @RequestBody CreateNoteRequest request) {
         NoteDetailResponse response = noteService.createNote(request);
@@ -28,6 +34,15 @@ public class NoteController {
                 .body(ApiResponse.success(201, "Note created successfully.", response));
     }
     
+    @GetMapping("/search")
+    public ResponseEntity<ApiResponse<NoteSearchResponse>> searchNotes(
+            @RequestParam(required = false) String q,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) Integer offset) {
+        NoteSearchResponse response = noteSearchService.search(q, limit, offset);
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     @GetMapping("/{id}")
     public ResponseEntity<ApiResponse<NoteDetailResponse>> getNoteDetail(@PathVariable Long id) {
         NoteDetailResponse response = noteService.getNoteDetail(id);
@@ -50,8 +65,20 @@ public class NoteController {
     
     @GetMapping
     public ResponseEntity<ApiResponse<List<NoteListItemResponse>>> getNotesByCategory(
-            @RequestParam(required = false) Long categoryId) {
-        List<NoteListItemResponse> notes = noteService.getNotesByCategory(categoryId);
-        return ResponseEntity.ok(ApiResponse.success(notes));
+            @RequestParam(required = false) Long categoryId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "true") boolean includeTotal) {
+        NoteListPage page = noteService.getNotesByCategory(categoryId, cursor, limit, sort, includeTotal);
+        
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok();
+        if (page.getNextCursor() != null) {
+            builder.header("X-Next-Cursor", page.getNextCursor());
+        }
+        if (page.getTotalCount() != null) {
+            builder.header("X-Total-Count", String.valueOf(page.getTotalCount()));
+        }
+        return builder.body(ApiResponse.success(page.getItems()));
     }
 }
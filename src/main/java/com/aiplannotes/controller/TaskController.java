@@ -1,6 +1,8 @@
 package com.aiplannotes.controller;
 
 import com.aiplannotes.dto.ApiResponse;
+import com.aiplannotes.dto.SubmitReviewBatchRequest;
+import com.aiplannotes.dto.SubmitReviewItemResult;
 import com.aiplannotes.dto.SubmitReviewRequest;
 import com.aiplannotes.dto.SubmitReviewResponse;
 import com.aiplannotes.dto.TodayTaskResponse;
@@ -30,4 +32,11 @@ public class TaskController {
         SubmitReviewResponse response = reviewService.submitReview(request);
         return ResponseEntity.ok(ApiResponse.success("Review result submitted successfully.", response));
     }
+    
+    @PostMapping("/reviews/submit-batch")
+    public ResponseEntity<ApiResponse<List<SubmitReviewItemResult>>> submitReviews(
+            @Valid @RequestBody SubmitReviewBatchRequest request) {
+        List<SubmitReviewItemResult> results = reviewService.submitReviews(request.getItems());
+        return ResponseEntity.ok(ApiResponse.success("Review results processed.", results));
+    }
 }
@@ -12,4 +12,6 @@ import java.sql.Timestamp;
 public class AiSummaryDto {
     private String summaryText;
     private Timestamp createdAt;
+    // The note changed after this summary was generated; a new one is on its way
+    private Boolean stale;
 }
@@ -0,0 +1,16 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportCategory implements ExportRecord {
+    private Long id;
+    private String name;
+    private Timestamp createdAt;
+}
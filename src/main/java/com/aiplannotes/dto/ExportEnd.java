@@ -0,0 +1,14 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportEnd implements ExportRecord {
+    private Long categories;
+    private Long notes;
+    private Long reviews;
+}
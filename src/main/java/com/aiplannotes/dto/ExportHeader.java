@@ -0,0 +1,17 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportHeader implements ExportRecord {
+    private Integer version;
+    private String username;
+    private String timeZone;
+    private Timestamp exportedAt;
+}
@@ -0,0 +1,24 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportNote implements ExportRecord {
+    private Long id;
+    private Long categoryId;
+    private String title;
+    private String content;
+    private Boolean isSupervised;
+    private Integer supervisionDurationSeconds;
+    private Timestamp createdAt;
+    private Timestamp updatedAt;
+    // Stage and due date of the upcoming review
+    private ReviewRecordDto nextReview;
+    private AiSummaryDto summary;
+}
@@ -0,0 +1,20 @@
+package com.aiplannotes.dto;
+
+import com.fasterxml.jackson.annotation.JsonSubTypes;
+import com.fasterxml.jackson.annotation.JsonTypeInfo;
+
+/**
+ * One line of an NDJSON export, tagged with its {@code type}. An export is a
+ * header, the categories, the notes, the review history and an end record
+ * with the counts; a file without the end record is incomplete.
+ */
+@JsonTypeInfo(use = JsonTypeInfo.Id.NAME, property = "type")
+@JsonSubTypes({
+    @JsonSubTypes.Type(value = ExportHeader.class, name = "header"),
+    @JsonSubTypes.Type(value = ExportCategory.class, name = "category"),
+    @JsonSubTypes.Type(value = ExportNote.class, name = "note"),
+    @JsonSubTypes.Type(value = ExportReview.class, name = "review"),
+    @JsonSubTypes.Type(value = ExportEnd.class, name = "end")
+})
+public interface ExportRecord {
+}
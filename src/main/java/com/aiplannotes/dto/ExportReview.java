@@ -0,0 +1,23 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+
+/**
+ * A completed review
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportReview implements ExportRecord {
+    private Long noteId;
+    private Integer stageNumber;
+    private LocalDate scheduledFor;
+    private Timestamp reviewedAt;
+    private String result;
+    private Integer reviewDurationSeconds;
+}
@@ -0,0 +1,36 @@
+package com.aiplannotes.dto;
+
+import com.aiplannotes.importer.ImportJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportJobResponse {
+    private String jobId;
+    private String status;
+    private Long recordsProcessed;
+    private Long notesImported;
+    private Long recordsSkipped;
+    private Long categoriesCreated;
+    // Why records were skipped, first few only
+    private List<String> errors;
+    private String error;
+    
+    public static ImportJobResponse from(ImportJob job) {
+        return new ImportJobResponse(
+                job.getId(),
+                job.getStatus().name(),
+                job.getRecordsProcessed(),
+                job.getNotesImported(),
+                job.getRecordsSkipped(),
+                job.getCategoriesCreated(),
+                job.getErrors(),
+                job.getError()
+        );
+    }
+}
@@ -0,0 +1,16 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteListPage {
+    private List<NoteListItemResponse> items;
+    private String nextCursor;
+    private Long totalCount;
+}
@@ -0,0 +1,16 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchHit {
+    private Long noteId;
+    // HTML-escaped, with matches wrapped in <em> tags
+    private String title;
+    private String snippet;
+    private Double score;
+}
@@ -0,0 +1,15 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchResponse {
+    private List<NoteSearchHit> items;
+    private Integer totalHits;
+}
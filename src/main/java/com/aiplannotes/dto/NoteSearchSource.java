@@ -0,0 +1,15 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSearchSource {
+    private Long noteId;
+    private Long userId;
+    private String title;
+    private String content;
+}
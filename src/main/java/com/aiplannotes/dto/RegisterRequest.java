@@ -27,4 +27,12 @@ public class RegisterRequest {
     @Email(message = "Email must be a valid email address")
     @Size(max = 100, message = "Email must not exceed 100 characters")
     private String email;
+    
+    // IANA zone ID such as "Asia/Shanghai"; defaults to UTC
+    @Size(max = 64, message = "Time zone must not exceed 64 characters")
+    private String timeZone;
+    
+    public RegisterRequest(String username, String password, String email) {
+        this(username, password, email, null);
+    }
 }
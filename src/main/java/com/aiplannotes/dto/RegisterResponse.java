@@ -11,4 +11,5 @@ public class RegisterResponse {
     private Long userId;
     private String username;
     private String email;
+    private String timeZone;
 }
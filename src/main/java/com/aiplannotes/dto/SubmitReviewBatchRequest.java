@@ -0,0 +1,21 @@
+package com.aiplannotes.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmitReviewBatchRequest {
+    
+    @Valid
+    @NotEmpty(message = "items cannot be empty")
+    @Size(max = 200, message = "items cannot contain more than 200 reviews")
+    private List<SubmitReviewRequest> items;
+}
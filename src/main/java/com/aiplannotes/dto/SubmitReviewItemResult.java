@@ -0,0 +1,25 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SubmitReviewItemResult {
+    private Long noteId;
+    private Boolean success;
+    private LocalDate nextReviewDate;
+    private String error;
+    
+    public static SubmitReviewItemResult success(Long noteId, LocalDate nextReviewDate) {
+        return new SubmitReviewItemResult(noteId, true, nextReviewDate, null);
+    }
+    
+    public static SubmitReviewItemResult failure(Long noteId, String error) {
+        return new SubmitReviewItemResult(noteId, false, null, error);
+    }
+}
@@ -0,0 +1,19 @@
+package com.aiplannotes.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.sql.Timestamp;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryBackfillCandidate {
+    private Long noteId;
+    private String title;
+    private String content;
+    private Timestamp updatedAt;
+    private String contentHash;
+    private String generatorVersion;
+}
@@ -0,0 +1,27 @@
+package com.aiplannotes.dto;
+
+import com.aiplannotes.ai.SummaryJob;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SummaryJobResponse {
+    private String jobId;
+    private Long noteId;
+    private String status;
+    private SummaryResponse summary;
+    private String error;
+    
+    public static SummaryJobResponse from(SummaryJob job) {
+        return new SummaryJobResponse(
+                job.getId(),
+                job.getNoteId(),
+                job.getStatus().name(),
+                job.getSummary(),
+                job.getError()
+        );
+    }
+}
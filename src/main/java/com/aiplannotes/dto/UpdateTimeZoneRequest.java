@@ -0,0 +1,17 @@
+package com.aiplannotes.dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UpdateTimeZoneRequest {
+    
+    @NotBlank(message = "Time zone must not be empty")
+    @Size(max = 64, message = "Time zone must not exceed 64 characters")
+    private String timeZone;
+}
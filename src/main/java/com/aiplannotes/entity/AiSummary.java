@@ -4,19 +4,28 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.sql.Timestamp;
+import java.time.Instant;
 
 @Entity
-@Table(name = "ai_summaries")
+@Table(name = "ai_summaries", indexes = {
+    @Index(name = "idx_ai_summaries_content", columnList = "content_hash, generator_version")
+})
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "ai_summaries")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class AiSummary {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ai_summaries_id")
+    @TableGenerator(name = "ai_summaries_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "ai_summaries", allocationSize = 50)
     private Long id;
     
     @OneToOne(fetch = FetchType.LAZY)
@@ -29,7 +38,25 @@ public class AiSummary {
     @Column(length = 50)
     private String modelUsed;
     
+    // SHA-256 of the title and content the summary was generated from
+    @Column(length = 64)
+    private String contentHash;
+    
+    @Column(length = 50)
+    private String generatorVersion;
+    
+    // Note.updatedAt of the note version this summary was generated from
+    private Timestamp sourceUpdatedAt;
+    
+    // The note's title or content changed after this summary was generated
+    @Column(nullable = false)
+    private Boolean stale = false;
+    
     @Column(nullable = false, updatable = false)
-    @CreationTimestamp
     private Timestamp createdAt;
+    
+    @PrePersist
+    void onCreate() {
+        createdAt = Timestamp.from(Instant.now());
+    }
 }
@@ -0,0 +1,49 @@
+package com.aiplannotes.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+/**
+ * Summary of one chunk of a long note: a paragraph, or a run of sentences of
+ * a longer one. The note's {@link AiSummary} is reduced from its chunks in
+ * order; after an edit, chunks whose hash is unchanged are reused instead of
+ * being summarised again.
+ */
+@Entity
+@Table(name = "ai_summary_chunks", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_ai_summary_chunks_note_index", columnNames = {"note_id", "chunk_index"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class AiSummaryChunk {
+    
+    @Id
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "ai_summary_chunks_id")
+    @TableGenerator(name = "ai_summary_chunks_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "ai_summary_chunks", allocationSize = 50)
+    private Long id;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "note_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Note note;
+    
+    @Column(nullable = false)
+    private Integer chunkIndex;
+    
+    // SHA-256 of the note title and the chunk text
+    @Column(nullable = false, length = 64)
+    private String chunkHash;
+    
+    @Column(nullable = false, length = 50)
+    private String generatorVersion;
+    
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String summaryText;
+}
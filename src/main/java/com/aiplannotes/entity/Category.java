@@ -4,19 +4,26 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.sql.Timestamp;
+import java.time.Instant;
 
 @Entity
 @Table(name = "categories")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "categories")
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Category {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "categories_id")
+    @TableGenerator(name = "categories_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "categories", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -27,6 +34,10 @@ public class Category {
     private String name;
     
     @Column(nullable = false, updatable = false)
-    @CreationTimestamp
     private Timestamp createdAt;
+    
+    @PrePersist
+    void onCreate() {
+        createdAt = Timestamp.from(Instant.now());
+    }
 }
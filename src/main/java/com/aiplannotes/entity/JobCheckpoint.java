@@ -0,0 +1,32 @@
+package com.aiplannotes.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.sql.Timestamp;
+
+/**
+ * Last processed ID of a background job that walks a table in ID order,
+ * so the job can resume where it stopped after a restart.
+ */
+@Entity
+@Table(name = "job_checkpoints")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class JobCheckpoint {
+    
+    @Id
+    @Column(length = 100)
+    private String jobName;
+    
+    @Column(nullable = false)
+    private Long lastId;
+    
+    @Column(nullable = false)
+    @UpdateTimestamp
+    private Timestamp updatedAt;
+}
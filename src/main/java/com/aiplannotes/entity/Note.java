@@ -4,22 +4,27 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
-import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
 import java.sql.Timestamp;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "notes")
+@Table(name = "notes", indexes = {
+    @Index(name = "idx_notes_user_category_created", columnList = "user_id, category_id, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class Note {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "notes_id")
+    @TableGenerator(name = "notes_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "notes", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
@@ -43,17 +48,19 @@ public class Note {
     private Integer supervisionDurationSeconds = 10;
     
     @Column(nullable = false, updatable = false)
-    @CreationTimestamp
     private Timestamp createdAt;
     
     @Column(nullable = false)
     @UpdateTimestamp
     private Timestamp updatedAt;
     
-    // Cascade delete for AI summaries and review records
-    @OneToOne(mappedBy = "note", cascade = CascadeType.ALL, orphanRemoval = true)
-    private AiSummary aiSummary;
-    
+    // Cascade delete for review records
     @OneToMany(mappedBy = "note", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ReviewRecord> reviewRecords = new ArrayList<>();
+    
+    // Known as soon as save() returns, unlike @CreationTimestamp which is only set at flush
+    @PrePersist
+    void onCreate() {
+        createdAt = Timestamp.from(Instant.now());
+    }
 }
@@ -0,0 +1,43 @@
+package com.aiplannotes.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
+
+import java.time.LocalDate;
+
+/**
+ * Current review state of a note: its stage and next due date.
+ * Completed reviews are appended to {@link ReviewRecord} as history.
+ */
+@Entity
+@Table(name = "pending_reviews", indexes = {
+    @Index(name = "idx_pending_reviews_user_due", columnList = "user_id, scheduled_for")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingReview {
+    
+    @Id
+    private Long noteId;
+    
+    @MapsId
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "note_id")
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    private Note note;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
+    @Column(nullable = false)
+    private Integer stageNumber;
+    
+    @Column(nullable = false)
+    private LocalDate scheduledFor;
+}
@@ -8,9 +8,14 @@ import lombok.NoArgsConstructor;
 import java.sql.Timestamp;
 import java.time.LocalDate;
 
+/**
+ * Append-only history of completed reviews. The current stage and due date
+ * of each note live in {@link PendingReview}.
+ */
 @Entity
 @Table(name = "review_records", indexes = {
-    @Index(name = "idx_scheduled_for", columnList = "scheduled_for")
+    @Index(name = "idx_review_records_note_history", columnList = "note_id, reviewed_at"),
+    @Index(name = "idx_review_records_user_history", columnList = "user_id, reviewed_at")
 })
 @Data
 @NoArgsConstructor
@@ -18,19 +23,28 @@ import java.time.LocalDate;
 public class ReviewRecord {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "review_records_id")
+    @TableGenerator(name = "review_records_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "review_records", allocationSize = 50)
     private Long id;
     
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "note_id", nullable = false)
     private Note note;
     
+    // Denormalised from note.user so per-user history queries do not join notes
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "user_id", nullable = false)
+    private User user;
+    
     @Column(nullable = false)
     private Integer stageNumber;
     
     @Column(nullable = false)
     private LocalDate scheduledFor;
     
+    @Column(nullable = false)
     private Timestamp reviewedAt;
     
     @Enumerated(EnumType.STRING)
@@ -1,5 +1,6 @@
 package com.aiplannotes.entity;
 
+import com.aiplannotes.security.UserCacheEvictionListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -11,13 +12,17 @@ import java.sql.Timestamp;
 
 @Entity
 @Table(name = "users")
+@EntityListeners(UserCacheEvictionListener.class)
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
 public class User {
     
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "users_id")
+    @TableGenerator(name = "users_id", table = "id_generators",
+            pkColumnName = "sequence_name", valueColumnName = "next_val",
+            pkColumnValue = "users", allocationSize = 50)
     private Long id;
     
     @Column(unique = true, nullable = false, length = 50)
@@ -29,6 +34,14 @@ public class User {
     @Column(unique = true, nullable = false, length = 100)
     private String email;
     
+    // IANA zone ID; review dates are calendar dates in this zone
+    @Column(nullable = false, length = 64)
+    private String timeZone = "UTC";
+    
+    // Bumped to revoke every token issued before the change
+    @Column(nullable = false)
+    private Integer tokenVersion = 0;
+    
     @Column(nullable = false, updatable = false)
     @CreationTimestamp
     private Timestamp createdAt;
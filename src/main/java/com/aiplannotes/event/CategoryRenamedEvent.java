@@ -0,0 +1,12 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+/**
+ * Published when a category's name changes.
+ */
+@Value
+public class CategoryRenamedEvent {
+    Long userId;
+    Long categoryId;
+}
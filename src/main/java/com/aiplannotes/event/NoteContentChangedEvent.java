@@ -0,0 +1,13 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+/**
+ * Published when an update changes a note's title or content while it has a
+ * summary; the summary has been marked stale in the same transaction.
+ */
+@Value
+public class NoteContentChangedEvent {
+    Long userId;
+    Long noteId;
+}
@@ -0,0 +1,20 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * Published when a note is created together with its first pending review.
+ */
+@Value
+public class NoteCreatedEvent {
+    Long userId;
+    Long noteId;
+    String title;
+    String content;
+    String categoryName;
+    Boolean isSupervised;
+    Integer supervisionDurationSeconds;
+    LocalDate firstReviewDate;
+}
@@ -0,0 +1,12 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+/**
+ * Published when a note is deleted, with its summary and reviews.
+ */
+@Value
+public class NoteDeletedEvent {
+    Long userId;
+    Long noteId;
+}
@@ -0,0 +1,17 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+/**
+ * Published on every note update with the note's new fields.
+ */
+@Value
+public class NoteUpdatedEvent {
+    Long userId;
+    Long noteId;
+    String title;
+    String content;
+    String categoryName;
+    Boolean isSupervised;
+    Integer supervisionDurationSeconds;
+}
@@ -0,0 +1,15 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published for each committed batch of a bulk import, instead of one
+ * {@link NoteCreatedEvent} per note.
+ */
+@Value
+public class NotesImportedEvent {
+    Long userId;
+    List<NoteCreatedEvent> notes;
+}
@@ -0,0 +1,15 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published when due reviews are completed; each note's pending review has
+ * moved to a later date.
+ */
+@Value
+public class ReviewsSubmittedEvent {
+    Long userId;
+    List<Long> noteIds;
+}
@@ -0,0 +1,13 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+/**
+ * Published when a generated summary is saved for a note.
+ */
+@Value
+public class SummaryStoredEvent {
+    Long userId;
+    Long noteId;
+    String summaryText;
+}
@@ -0,0 +1,12 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+/**
+ * Published when a user revokes their tokens; tokens older than the new version are rejected.
+ */
+@Value
+public class TokensRevokedEvent {
+    Long userId;
+    Integer tokenVersion;
+}
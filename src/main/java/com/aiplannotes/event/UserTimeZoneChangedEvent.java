@@ -0,0 +1,11 @@
+package com.aiplannotes.event;
+
+import lombok.Value;
+
+/**
+ * Published when a user changes the time zone their review dates are computed in.
+ */
+@Value
+public class UserTimeZoneChangedEvent {
+    Long userId;
+}
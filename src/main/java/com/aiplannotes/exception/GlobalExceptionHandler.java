@@ -37,6 +37,7 @@ public class GlobalExceptionHandler {
             case 409 -> HttpStatus.CONFLICT;
             case 404 -> HttpStatus.NOT_FOUND;
             case 403 -> HttpStatus.FORBIDDEN;
+            case 503 -> HttpStatus.SERVICE_UNAVAILABLE;
             default -> HttpStatus.BAD_REQUEST;
         };
         
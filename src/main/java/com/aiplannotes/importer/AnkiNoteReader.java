@@ -0,0 +1,202 @@
+package com.aiplannotes.importer;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Anki "Notes in Plain Text" export. The file headers {@code #separator},
+ * {@code #html} and the {@code #... column} headers are honoured. The first
+ * field is the title and the remaining fields are the content; each note goes
+ * to the category named after its deck, or to the default category when the
+ * file has no deck column. Quoted fields use {@code ""} for a quote and may
+ * span lines.
+ */
+class AnkiNoteReader implements NoteReader {
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private final BufferedReader reader;
+    private final String defaultCategory;
+
+    private char separator = '\t';
+    private boolean html;
+    // 1-based columns that hold metadata rather than note fields; 0 when absent
+    private int deckColumn;
+    private int tagsColumn;
+    private int notetypeColumn;
+    private int guidColumn;
+
+    private int lineNumber = 1;
+    private int pushedBack = -2;
+
+    AnkiNoteReader(BufferedReader reader, String defaultCategory) throws IOException {
+        this.reader = reader;
+        this.defaultCategory = defaultCategory;
+        readHeaders();
+    }
+
+    @Override
+    public ImportedNote next() throws IOException {
+        List<String> row;
+        int rowLine;
+        do {
+            rowLine = lineNumber;
+            row = readRow();
+            if (row == null) {
+                return null;
+            }
+        } while (row.size() == 1 && row.get(0).isBlank());
+
+        String category = defaultCategory;
+        List<String> fields = new ArrayList<>();
+        for (int column = 1; column <= row.size(); column++) {
+            String value = row.get(column - 1);
+            if (column == deckColumn) {
+                category = value.isBlank() ? defaultCategory : value.trim();
+            } else if (column != tagsColumn && column != notetypeColumn && column != guidColumn) {
+                fields.add(html ? toText(value) : value.strip());
+            }
+        }
+        if (fields.isEmpty() || fields.get(0).isBlank()) {
+            return ImportedNote.invalid(rowLine, "The first field is empty");
+        }
+
+        String front = fields.get(0);
+        StringBuilder back = new StringBuilder();
+        for (String field : fields.subList(1, fields.size())) {
+            if (!field.isBlank()) {
+                back.append(back.length() > 0 ? "\n\n" : "").append(field);
+            }
+        }
+        String title = front.lines().findFirst().orElse("").strip();
+        if (title.length() > MAX_TITLE_LENGTH) {
+            int end = MAX_TITLE_LENGTH - 1;
+            if (Character.isLowSurrogate(title.charAt(end))) {
+                end--;
+            }
+            title = title.substring(0, end) + "…";
+        }
+        // Keep the whole front when the title does not
+        String content = back.length() == 0 ? front
+                : title.equals(front) ? back.toString()
+                : front + "\n\n" + back;
+        return ImportedNote.of(rowLine, title, content, category);
+    }
+
+    private void readHeaders() throws IOException {
+        while (peek() == '#') {
+            // The peeked '#' is dropped, readLine returns the rest
+            pushedBack = -2;
+            String header = reader.readLine();
+            lineNumber++;
+            int colon = header != null ? header.indexOf(':') : -1;
+            if (colon < 0) {
+                continue;
+            }
+            String key = header.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+            String value = header.substring(colon + 1).trim();
+            switch (key) {
+                case "separator" -> separator = separator(value);
+                case "html" -> html = Boolean.parseBoolean(value);
+                case "deck column" -> deckColumn = column(value);
+                case "tags column" -> tagsColumn = column(value);
+                case "notetype column" -> notetypeColumn = column(value);
+                case "guid column" -> guidColumn = column(value);
+                default -> {
+                }
+            }
+        }
+    }
+
+    /**
+     * Fields of the next row, or null at the end of the file
+     */
+    private List<String> readRow() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean wasQuoted = false;
+        while (c != -1) {
+            if (quoted) {
+                if (c == '"') {
+                    if (peek() == '"') {
+                        read();
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    if (c == '\n') {
+                        lineNumber++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0 && !wasQuoted) {
+                quoted = true;
+                wasQuoted = true;
+            } else if (c == separator) {
+                fields.add(field.toString());
+                field.setLength(0);
+                wasQuoted = false;
+            } else if (c == '\n') {
+                lineNumber++;
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private int peek() throws IOException {
+        if (pushedBack == -2) {
+            pushedBack = reader.read();
+        }
+        return pushedBack;
+    }
+
+    private static char separator(String value) {
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "tab" -> '\t';
+            case "comma" -> ',';
+            case "semicolon" -> ';';
+            case "pipe" -> '|';
+            case "space" -> ' ';
+            case "colon" -> ':';
+            default -> value.isEmpty() ? '\t' : value.charAt(0);
+        };
+    }
+
+    private static int column(String value) {
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String toText(String html) {
+        String text = html.replaceAll("(?i)<br\\s*/?>|</div>|</p>|</li>", "\n").replaceAll("<[^>]*>", "");
+        return HtmlUtils.htmlUnescape(text).strip();
+    }
+}
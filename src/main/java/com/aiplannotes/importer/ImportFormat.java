@@ -0,0 +1,28 @@
+package com.aiplannotes.importer;
+
+import com.aiplannotes.exception.BusinessException;
+
+import java.util.Locale;
+
+/**
+ * Supported upload formats
+ */
+public enum ImportFormat {
+    /** One note per {@code # } heading */
+    MARKDOWN,
+    /** Anki "Notes in Plain Text" export */
+    ANKI,
+    /** The NDJSON produced by GET /api/export */
+    NDJSON;
+
+    public static ImportFormat parse(String format) {
+        if (format == null || format.isBlank()) {
+            throw new BusinessException(400, "Import format is required");
+        }
+        try {
+            return valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(400, "Unsupported import format: " + format);
+        }
+    }
+}
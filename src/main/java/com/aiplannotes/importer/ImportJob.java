@@ -0,0 +1,87 @@
+package com.aiplannotes.importer;
+
+import lombok.Getter;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Progress of one import on this node. Updated by the uploading request after
+ * every committed batch and read by polling requests, hence the volatile
+ * fields. The durable resume point is the job's checkpoint row.
+ */
+@Getter
+public class ImportJob {
+
+    public enum Status {
+        PENDING, RUNNING, SUCCEEDED, FAILED
+    }
+
+    // Reasons of skipped records reported back to the user
+    private static final int MAX_ERRORS = 20;
+
+    private final String id;
+    private final Long userId;
+    private final Instant createdAt = Instant.now();
+    private volatile Status status = Status.PENDING;
+    // Records committed so far, including skipped ones; where a resumed upload continues
+    private volatile long recordsProcessed;
+    private volatile long notesImported;
+    private volatile long recordsSkipped;
+    private volatile long categoriesCreated;
+    private volatile String error;
+    private final List<String> errors = new ArrayList<>();
+
+    public ImportJob(Long userId) {
+        this(UUID.randomUUID().toString(), userId, 0);
+    }
+
+    /**
+     * A job known only from its checkpoint, e.g. after a restart
+     */
+    public ImportJob(String id, Long userId, long recordsProcessed) {
+        this.id = id;
+        this.userId = userId;
+        this.recordsProcessed = recordsProcessed;
+    }
+
+    /**
+     * Claim the job for an upload; a failed job can be resumed
+     * @return false if it is running or already finished
+     */
+    public synchronized boolean start() {
+        if (status != Status.PENDING && status != Status.FAILED) {
+            return false;
+        }
+        status = Status.RUNNING;
+        error = null;
+        return true;
+    }
+
+    public synchronized void batchCommitted(long records, long notes, long categories, List<String> skipped) {
+        recordsProcessed += records;
+        notesImported += notes;
+        categoriesCreated += categories;
+        recordsSkipped += skipped.size();
+        for (String reason : skipped) {
+            if (errors.size() < MAX_ERRORS) {
+                errors.add(reason);
+            }
+        }
+    }
+
+    public void complete() {
+        status = Status.SUCCEEDED;
+    }
+
+    public void fail(String error) {
+        this.error = error;
+        status = Status.FAILED;
+    }
+
+    public synchronized List<String> getErrors() {
+        return List.copyOf(errors);
+    }
+}
@@ -0,0 +1,34 @@
+package com.aiplannotes.importer;
+
+import lombok.Value;
+
+import java.time.LocalDate;
+
+/**
+ * One note read from an upload, or the reason a record could not be read.
+ * Review stage and date are only known when restoring an export.
+ */
+@Value
+public class ImportedNote {
+    int line;
+    String title;
+    String content;
+    String categoryName;
+    boolean supervised;
+    int supervisionDurationSeconds;
+    Integer stageNumber;
+    LocalDate scheduledFor;
+    String error;
+
+    public static ImportedNote of(int line, String title, String content, String categoryName) {
+        return new ImportedNote(line, title, content, categoryName, false, 10, null, null, null);
+    }
+
+    public static ImportedNote invalid(int line, String error) {
+        return new ImportedNote(line, null, null, null, false, 10, null, null, error);
+    }
+
+    public boolean isValid() {
+        return error == null;
+    }
+}
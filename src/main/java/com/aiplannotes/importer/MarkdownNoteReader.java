@@ -0,0 +1,68 @@
+package com.aiplannotes.importer;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+
+/**
+ * Markdown with one note per level-one heading: the heading is the title and
+ * everything up to the next level-one heading is the content. Headings inside
+ * fenced code blocks do not start a note.
+ */
+class MarkdownNoteReader implements NoteReader {
+
+    private final BufferedReader reader;
+    private final String category;
+
+    private int lineNumber;
+    // Heading of the note being read
+    private String title;
+    private int titleLine;
+    private boolean finished;
+
+    MarkdownNoteReader(BufferedReader reader, String category) {
+        this.reader = reader;
+        this.category = category;
+    }
+
+    @Override
+    public ImportedNote next() throws IOException {
+        if (finished) {
+            return null;
+        }
+        StringBuilder content = new StringBuilder();
+        boolean inFence = false;
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String trimmed = line.trim();
+            if (trimmed.startsWith("```") || trimmed.startsWith("~~~")) {
+                inFence = !inFence;
+            }
+            if (!inFence && (line.startsWith("# ") || line.equals("#"))) {
+                ImportedNote note = current(content);
+                // Optional closing sequence: "# Title #"
+                title = line.substring(1).replaceAll("\\s+#+\\s*$", "").trim();
+                titleLine = lineNumber;
+                if (note != null) {
+                    return note;
+                }
+                continue;
+            }
+            content.append(line).append('\n');
+        }
+        finished = true;
+        return current(content);
+    }
+
+    /**
+     * The note whose content was just read; null for blank text before the first heading
+     */
+    private ImportedNote current(StringBuilder content) {
+        if (title == null) {
+            return content.toString().isBlank()
+                    ? null
+                    : ImportedNote.invalid(1, "Text before the first '# ' heading has no title");
+        }
+        return ImportedNote.of(titleLine, title, content.toString().strip(), category);
+    }
+}
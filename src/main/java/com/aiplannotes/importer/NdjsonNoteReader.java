@@ -0,0 +1,80 @@
+package com.aiplannotes.importer;
+
+import com.aiplannotes.dto.ExportCategory;
+import com.aiplannotes.dto.ExportHeader;
+import com.aiplannotes.dto.ExportNote;
+import com.aiplannotes.dto.ExportRecord;
+import com.aiplannotes.exception.BusinessException;
+import com.aiplannotes.service.ExportService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Restores notes from an export. Categories are matched by name and each
+ * note keeps its review stage and due date. Summaries are not imported (the
+ * backfill regenerates them) and neither is the review history.
+ */
+class NdjsonNoteReader implements NoteReader {
+
+    private final BufferedReader reader;
+    private final ObjectMapper objectMapper;
+
+    // Category ids of the exporting account; categories precede the notes
+    private final Map<Long, String> categoryNames = new HashMap<>();
+
+    private int lineNumber;
+
+    NdjsonNoteReader(BufferedReader reader, ObjectMapper objectMapper) {
+        this.reader = reader;
+        this.objectMapper = objectMapper;
+    }
+
+    @Override
+    public ImportedNote next() throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            ExportRecord record;
+            try {
+                record = objectMapper.readValue(line, ExportRecord.class);
+            } catch (JsonProcessingException e) {
+                return ImportedNote.invalid(lineNumber, "Not a valid export record: " + e.getOriginalMessage());
+            }
+            if (record instanceof ExportHeader header && header.getVersion() != null
+                    && header.getVersion() > ExportService.FORMAT_VERSION) {
+                throw new BusinessException(400, "Unsupported export version: " + header.getVersion());
+            }
+            if (record instanceof ExportCategory category) {
+                categoryNames.put(category.getId(), category.getName());
+            }
+            if (record instanceof ExportNote note) {
+                return toImportedNote(note);
+            }
+        }
+        return null;
+    }
+
+    private ImportedNote toImportedNote(ExportNote note) {
+        String categoryName = null;
+        if (note.getCategoryId() != null) {
+            categoryName = categoryNames.get(note.getCategoryId());
+            if (categoryName == null) {
+                return ImportedNote.invalid(lineNumber, "Unknown category " + note.getCategoryId());
+            }
+        }
+        return new ImportedNote(lineNumber, note.getTitle(), note.getContent(), categoryName,
+                Boolean.TRUE.equals(note.getIsSupervised()),
+                note.getSupervisionDurationSeconds() != null ? note.getSupervisionDurationSeconds() : 10,
+                note.getNextReview() != null ? note.getNextReview().getStageNumber() : null,
+                note.getNextReview() != null ? note.getNextReview().getScheduledFor() : null,
+                null);
+    }
+}
@@ -0,0 +1,41 @@
+package com.aiplannotes.importer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Reads notes one at a time from an upload, holding only the current record
+ * in memory. Every call to {@link #next()} returns one record, valid or not,
+ * in a stable order, so a resumed import can skip the records it already
+ * processed.
+ */
+public interface NoteReader {
+
+    /**
+     * @return the next record, or null at the end of the upload
+     */
+    ImportedNote next() throws IOException;
+
+    /**
+     * @param defaultCategory category for notes whose format has none, may be null
+     */
+    static NoteReader open(ImportFormat format, InputStream upload, String defaultCategory, ObjectMapper objectMapper)
+            throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(upload, StandardCharsets.UTF_8));
+        // Skip a UTF-8 byte order mark
+        reader.mark(1);
+        if (reader.read() != '\uFEFF') {
+            reader.reset();
+        }
+        return switch (format) {
+            case MARKDOWN -> new MarkdownNoteReader(reader, defaultCategory);
+            case ANKI -> new AnkiNoteReader(reader, defaultCategory);
+            case NDJSON -> new NdjsonNoteReader(reader, objectMapper);
+        };
+    }
+}
@@ -0,0 +1,67 @@
+package com.aiplannotes.monitoring;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * SQL statements run by one request on its own thread: how many and how long
+ * they took in total. Opened and closed by {@link SqlRequestStatsFilter} and
+ * added to by {@link SqlStatementListener}.
+ */
+public final class SqlRequestStats {
+
+    private static final ThreadLocal<SqlRequestStats> CURRENT = new ThreadLocal<>();
+
+    private final HttpServletRequest request;
+
+    private int statements;
+
+    private long nanos;
+
+    private SqlRequestStats(HttpServletRequest request) {
+        this.request = request;
+    }
+
+    static SqlRequestStats open(HttpServletRequest request) {
+        SqlRequestStats stats = new SqlRequestStats(request);
+        CURRENT.set(stats);
+        return stats;
+    }
+
+    void close() {
+        CURRENT.remove();
+    }
+
+    /**
+     * @return the stats of the request running on this thread, or null outside a request
+     */
+    static SqlRequestStats current() {
+        return CURRENT.get();
+    }
+
+    void record(long statementNanos) {
+        statements++;
+        nanos += statementNanos;
+    }
+
+    public int getStatements() {
+        return statements;
+    }
+
+    public long getNanos() {
+        return nanos;
+    }
+
+    public String getMethod() {
+        return request.getMethod();
+    }
+
+    /**
+     * The matched route, such as /api/notes/{id}, so per-endpoint metrics stay
+     * bounded; UNKNOWN before a handler is found or when none matched
+     */
+    public String getUri() {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return pattern != null ? pattern.toString() : "UNKNOWN";
+    }
+}
@@ -0,0 +1,100 @@
+package com.aiplannotes.monitoring;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Collects the SQL each request runs, including in the security filters, and
+ * records it per endpoint as {@code sql.request.statements} and
+ * {@code sql.request.duration}. With {@code sql.monitoring.response-headers}
+ * (the dev profile) the totals are also returned as X-SQL-Count and
+ * X-SQL-Time-Ms headers. Streamed responses count only the SQL run before
+ * the response went async.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 2)
+public class SqlRequestStatsFilter extends OncePerRequestFilter {
+
+    public static final String COUNT_HEADER = "X-SQL-Count";
+
+    public static final String TIME_HEADER = "X-SQL-Time-Ms";
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${sql.monitoring.response-headers:false}")
+    private boolean responseHeaders;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        SqlRequestStats stats = SqlRequestStats.open(request);
+        StatsHeaderResponse headerResponse = responseHeaders ? new StatsHeaderResponse(response, stats) : null;
+        try {
+            filterChain.doFilter(request, headerResponse != null ? headerResponse : response);
+        } finally {
+            stats.close();
+            if (headerResponse != null) {
+                headerResponse.addStatsHeaders();
+            }
+            DistributionSummary.builder("sql.request.statements")
+                    .description("SQL statements executed per request")
+                    .tag("method", stats.getMethod())
+                    .tag("uri", stats.getUri())
+                    .register(meterRegistry)
+                    .record(stats.getStatements());
+            Timer.builder("sql.request.duration")
+                    .description("Total SQL execution time per request")
+                    .tag("method", stats.getMethod())
+                    .tag("uri", stats.getUri())
+                    .register(meterRegistry)
+                    .record(stats.getNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Adds the headers just before the response commits, since a body written
+     * by the handler commits it before this filter regains control
+     */
+    private static class StatsHeaderResponse extends OnCommittedResponseWrapper {
+
+        private final SqlRequestStats stats;
+
+        private volatile boolean headersAdded;
+
+        StatsHeaderResponse(HttpServletResponse response, SqlRequestStats stats) {
+            super(response);
+            this.stats = stats;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            addStatsHeaders();
+        }
+
+        void addStatsHeaders() {
+            if (headersAdded || isCommitted()) {
+                return;
+            }
+            headersAdded = true;
+            setHeader(COUNT_HEADER, String.valueOf(stats.getStatements()));
+            setHeader(TIME_HEADER, String.format(Locale.ROOT, "%.3f", stats.getNanos() / 1_000_000.0));
+        }
+    }
+}
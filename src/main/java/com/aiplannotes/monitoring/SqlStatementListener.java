@@ -0,0 +1,73 @@
+package com.aiplannotes.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Times every JDBC execution through the proxied DataSource, adds it to the
+ * current request's {@link SqlRequestStats} and logs and counts executions
+ * slower than {@code sql.monitoring.slow-query-threshold} with the endpoint
+ * that ran them. Only statement text is logged, never parameter values.
+ */
+@Slf4j
+@Component
+public class SqlStatementListener implements QueryExecutionListener {
+
+    private static final int MAX_LOGGED_SQL_LENGTH = 1000;
+
+    // Looked up lazily: this listener is created while the DataSource is, before the registry
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${sql.monitoring.slow-query-threshold:200ms}")
+    private Duration slowQueryThreshold;
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        // Nanoseconds: DataSourceProxyConfig installs a System.nanoTime stopwatch
+        long nanos = execInfo.getElapsedTime();
+
+        SqlRequestStats stats = SqlRequestStats.current();
+        if (stats != null) {
+            stats.record(nanos);
+        }
+        if (nanos >= slowQueryThreshold.toNanos()) {
+            slowQuery(execInfo, queryInfoList, nanos, stats);
+        }
+    }
+
+    private void slowQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList, long nanos, SqlRequestStats stats) {
+        String method = stats != null ? stats.getMethod() : "none";
+        String uri = stats != null ? stats.getUri() : "none";
+        String endpoint = stats != null ? method + " " + uri : "thread " + Thread.currentThread().getName();
+        String sql = queryInfoList.stream().map(QueryInfo::getQuery).distinct().collect(Collectors.joining("; "));
+        if (sql.length() > MAX_LOGGED_SQL_LENGTH) {
+            sql = sql.substring(0, MAX_LOGGED_SQL_LENGTH) + "...";
+        }
+        log.warn("Slow SQL took {} ms in {}{}: {}", nanos / 1_000_000, endpoint,
+                execInfo.isBatch() ? " (batch of " + execInfo.getBatchSize() + ")" : "", sql);
+
+        meterRegistry.ifAvailable(registry -> Counter.builder("sql.slow.queries")
+                .description("Statements slower than sql.monitoring.slow-query-threshold")
+                .tag("method", method)
+                .tag("uri", uri)
+                .register(registry)
+                .increment());
+    }
+}
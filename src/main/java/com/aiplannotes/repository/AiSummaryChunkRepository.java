@@ -0,0 +1,19 @@
+package com.aiplannotes.repository;
+
+import com.aiplannotes.entity.AiSummaryChunk;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface AiSummaryChunkRepository extends JpaRepository<AiSummaryChunk, Long> {
+    List<AiSummaryChunk> findByNoteIdOrderByChunkIndex(Long noteId);
+    
+    @Modifying
+    @Query("delete from AiSummaryChunk c where c.note.id = :noteId")
+    int deleteByNoteId(@Param("noteId") Long noteId);
+}
@@ -1,12 +1,38 @@
 package com.aiplannotes.repository;
 
+import com.aiplannotes.dto.SummaryBackfillCandidate;
 import com.aiplannotes.entity.AiSummary;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface AiSummaryRepository extends JpaRepository<AiSummary, Long> {
+    // Cached query; its results are invalidated whenever ai_summaries is written
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AiSummary> findByNoteId(Long noteId);
+    
+    Optional<AiSummary> findFirstByContentHashAndGeneratorVersion(String contentHash, String generatorVersion);
+    
+    // Notes without a summary, or whose summary is stale or predates their last update, in ID order
+    @Query("select new com.aiplannotes.dto.SummaryBackfillCandidate(" +
+           "n.id, n.title, n.content, n.updatedAt, s.contentHash, s.generatorVersion) " +
+           "from Note n left join AiSummary s on s.note = n " +
+           "where n.id > :afterId " +
+           "and (s.id is null or s.stale = true or s.sourceUpdatedAt is null or s.sourceUpdatedAt < n.updatedAt) " +
+           "order by n.id")
+    List<SummaryBackfillCandidate> findBackfillCandidates(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("select count(n) from Note n left join AiSummary s on s.note = n " +
+           "where n.id > :afterId " +
+           "and (s.id is null or s.stale = true or s.sourceUpdatedAt is null or s.sourceUpdatedAt < n.updatedAt)")
+    long countBackfillCandidates(@Param("afterId") Long afterId);
 }
@@ -10,6 +10,11 @@ import java.util.Optional;
 @Repository
 public interface CategoryRepository extends JpaRepository<Category, Long> {
     List<Category> findByUserId(Long userId);
-    Optional<Category> findByIdAndUserId(Long id, Long userId);
+    
+    // Looked up by id so it is served from the second-level cache; another user's category counts as missing
+    default Optional<Category> findByIdAndUserId(Long id, Long userId) {
+        return findById(id).filter(category -> category.getUser().getId().equals(userId));
+    }
+    
     boolean existsByUserIdAndName(Long userId, String name);
 }
@@ -0,0 +1,112 @@
+package com.aiplannotes.repository;
+
+import com.aiplannotes.dto.AiSummaryDto;
+import com.aiplannotes.dto.ExportCategory;
+import com.aiplannotes.dto.ExportNote;
+import com.aiplannotes.dto.ExportReview;
+import com.aiplannotes.dto.ReviewRecordDto;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.util.function.Consumer;
+
+/**
+ * Reads a user's data for export over forward-only JDBC cursors. Each row is
+ * handed to the consumer as soon as it is read and nothing is collected, so
+ * memory use does not grow with the number of notes. Only one cursor may be
+ * open on a connection at a time: call these one after another.
+ */
+@Repository
+public class ExportRepository {
+
+    private static final String CATEGORY_SELECT = "SELECT c.id, c.name, c.created_at " +
+            "FROM categories c WHERE c.user_id = ? ORDER BY c.id";
+
+    // Read in idx_notes_user_category_created order so MySQL does not sort the user's notes
+    private static final String NOTE_SELECT = "SELECT n.id, n.category_id, n.title, n.content, " +
+            "n.is_supervised, n.supervision_duration_seconds, n.created_at, n.updated_at, " +
+            "p.stage_number, p.scheduled_for, s.summary_text, s.created_at AS summary_created_at, s.stale " +
+            "FROM notes n " +
+            "LEFT JOIN pending_reviews p ON p.note_id = n.id " +
+            "LEFT JOIN ai_summaries s ON s.note_id = n.id " +
+            "WHERE n.user_id = ? ORDER BY n.category_id, n.created_at, n.id";
+
+    // Served by idx_review_records_user_history
+    private static final String REVIEW_SELECT = "SELECT r.note_id, r.stage_number, r.scheduled_for, " +
+            "r.reviewed_at, r.result, r.review_duration_seconds " +
+            "FROM review_records r WHERE r.user_id = ? ORDER BY r.reviewed_at, r.id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Value("${export.fetch-size:500}")
+    private int fetchSize;
+
+    public long forEachCategory(Long userId, Consumer<ExportCategory> consumer) {
+        return stream(CATEGORY_SELECT, userId, rs -> consumer.accept(new ExportCategory(
+                rs.getLong("id"),
+                rs.getString("name"),
+                rs.getTimestamp("created_at"))));
+    }
+
+    public long forEachNote(Long userId, Consumer<ExportNote> consumer) {
+        return stream(NOTE_SELECT, userId, rs -> {
+            Date scheduledFor = rs.getDate("scheduled_for");
+            String summaryText = rs.getString("summary_text");
+            consumer.accept(new ExportNote(
+                    rs.getLong("id"),
+                    rs.getObject("category_id", Long.class),
+                    rs.getString("title"),
+                    rs.getString("content"),
+                    rs.getBoolean("is_supervised"),
+                    rs.getInt("supervision_duration_seconds"),
+                    rs.getTimestamp("created_at"),
+                    rs.getTimestamp("updated_at"),
+                    scheduledFor != null
+                            ? new ReviewRecordDto(rs.getInt("stage_number"), scheduledFor.toLocalDate())
+                            : null,
+                    summaryText != null
+                            ? new AiSummaryDto(summaryText, rs.getTimestamp("summary_created_at"), rs.getBoolean("stale"))
+                            : null));
+        });
+    }
+
+    public long forEachReview(Long userId, Consumer<ExportReview> consumer) {
+        return stream(REVIEW_SELECT, userId, rs -> consumer.accept(new ExportReview(
+                rs.getLong("note_id"),
+                rs.getInt("stage_number"),
+                rs.getDate("scheduled_for").toLocalDate(),
+                rs.getTimestamp("reviewed_at"),
+                rs.getString("result"),
+                rs.getObject("review_duration_seconds", Integer.class))));
+    }
+
+    /**
+     * Run a query for one user on a read-only forward-only cursor
+     * @return the number of rows read
+     */
+    private long stream(String sql, Long userId, RowCallbackHandler handler) {
+        long[] rows = {0};
+        PreparedStatementCreator creator = connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql,
+                    ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Connector/J buffers the whole result unless asked to stream row by row
+            boolean mysql = "MySQL".equals(connection.getMetaData().getDatabaseProductName());
+            statement.setFetchSize(mysql ? Integer.MIN_VALUE : fetchSize);
+            statement.setLong(1, userId);
+            return statement;
+        };
+        jdbcTemplate.query(creator, rs -> {
+            handler.processRow(rs);
+            rows[0]++;
+        });
+        return rows[0];
+    }
+}
@@ -0,0 +1,32 @@
+package com.aiplannotes.repository;
+
+import com.aiplannotes.entity.JobCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+
+@Repository
+public interface JobCheckpointRepository extends JpaRepository<JobCheckpoint, String> {
+    
+    // Compare-and-set, so two uploads resuming the same job cannot both commit the same records
+    @Modifying
+    @Query("update JobCheckpoint c set c.lastId = :lastId, c.updatedAt = current_timestamp " +
+           "where c.jobName = :jobName and c.lastId = :expectedLastId")
+    int advance(@Param("jobName") String jobName, @Param("expectedLastId") Long expectedLastId,
+                @Param("lastId") Long lastId);
+    
+    // Claims a job for one run across nodes: succeeds only if nobody ran it since staleBefore
+    @Modifying
+    @Query("update JobCheckpoint c set c.updatedAt = :now " +
+           "where c.jobName = :jobName and c.updatedAt < :staleBefore")
+    int claim(@Param("jobName") String jobName, @Param("staleBefore") Timestamp staleBefore,
+              @Param("now") Timestamp now);
+    
+    @Modifying
+    @Query("delete from JobCheckpoint c where c.jobName like :prefix% and c.updatedAt < :before")
+    int deleteStale(@Param("prefix") String prefix, @Param("before") Timestamp before);
+}
@@ -0,0 +1,43 @@
+package com.aiplannotes.repository;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.sql.Timestamp;
+
+/**
+ * Keyset query over a user's notes, ordered by (createdAt, id)
+ */
+@Getter
+@AllArgsConstructor
+public class NoteListQuery {
+
+    public enum Sort {
+        NEWEST("createdAt.desc"),
+        OLDEST("createdAt.asc");
+
+        // Sort field and direction, as recorded in continuation tokens
+        private final String key;
+
+        Sort(String key) {
+            this.key = key;
+        }
+
+        public String getKey() {
+            return key;
+        }
+    }
+
+    private final Long userId;
+    // null or 0 selects uncategorized notes
+    private final Long categoryId;
+    private final Sort sort;
+    // Position after which to continue; both null for the first page
+    private final Timestamp afterCreatedAt;
+    private final Long afterId;
+    private final int limit;
+
+    public boolean isUncategorized() {
+        return categoryId == null || categoryId == 0;
+    }
+}
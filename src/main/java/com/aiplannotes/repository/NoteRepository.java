@@ -1,16 +1,28 @@
 package com.aiplannotes.repository;
 
+import com.aiplannotes.dto.NoteSearchSource;
 import com.aiplannotes.entity.Note;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface NoteRepository extends JpaRepository<Note, Long> {
-    List<Note> findByUserIdAndCategoryId(Long userId, Long categoryId);
-    List<Note> findByUserIdAndCategoryIsNull(Long userId);
+public interface NoteRepository extends JpaRepository<Note, Long>, NoteRepositoryCustom {
     Optional<Note> findByIdAndUserId(Long id, Long userId);
     boolean existsByCategoryId(Long categoryId);
+    
+    // Keyset pages of all notes in ID order, for building the search index
+    @Query("select new com.aiplannotes.dto.NoteSearchSource(n.id, n.user.id, n.title, n.content) " +
+           "from Note n where n.id > :afterId order by n.id")
+    List<NoteSearchSource> findSearchSources(@Param("afterId") Long afterId, Pageable pageable);
+    
+    @Query("select new com.aiplannotes.dto.NoteSearchSource(n.id, n.user.id, n.title, n.content) " +
+           "from Note n where n.id in :ids and n.user.id = :userId")
+    List<NoteSearchSource> findSearchSources(@Param("ids") Collection<Long> ids, @Param("userId") Long userId);
 }
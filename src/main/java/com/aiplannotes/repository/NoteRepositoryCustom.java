@@ -0,0 +1,10 @@
+package com.aiplannotes.repository;
+
+import com.aiplannotes.dto.NoteListItemResponse;
+
+import java.util.List;
+
+public interface NoteRepositoryCustom {
+    List<NoteListItemResponse> findListItems(NoteListQuery query);
+    long countListItems(NoteListQuery query);
+}
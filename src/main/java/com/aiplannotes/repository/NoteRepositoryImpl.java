@@ -0,0 +1,72 @@
+package com.aiplannotes.repository;
+
+import com.aiplannotes.dto.NoteListItemResponse;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+
+import java.util.List;
+
+/**
+ * Keyset-paginated list read model backed by the
+ * notes(user_id, category_id, created_at, id) index
+ */
+public class NoteRepositoryImpl implements NoteRepositoryCustom {
+
+    // List read model: one query, no entity hydration, summary preview truncated in the database
+    private static final String LIST_ITEM_SELECT = "select new com.aiplannotes.dto.NoteListItemResponse(" +
+            "n.id, n.title, n.isSupervised, " +
+            "case when length(s.summaryText) > 100 then concat(substring(s.summaryText, 1, 100), '...') " +
+            "else s.summaryText end, " +
+            "n.createdAt) " +
+            "from Note n left join AiSummary s on s.note = n ";
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<NoteListItemResponse> findListItems(NoteListQuery query) {
+        boolean newest = query.getSort() == NoteListQuery.Sort.NEWEST;
+        String cmp = newest ? "<" : ">";
+        String dir = newest ? "desc" : "asc";
+
+        StringBuilder jpql = new StringBuilder(LIST_ITEM_SELECT)
+                .append(whereClause(query));
+        if (query.getAfterId() != null) {
+            jpql.append(" and (n.createdAt ").append(cmp).append(" :afterCreatedAt")
+                    .append(" or (n.createdAt = :afterCreatedAt and n.id ").append(cmp).append(" :afterId))");
+        }
+        jpql.append(" order by n.createdAt ").append(dir).append(", n.id ").append(dir);
+
+        TypedQuery<NoteListItemResponse> typedQuery = entityManager
+                .createQuery(jpql.toString(), NoteListItemResponse.class)
+                .setMaxResults(query.getLimit());
+        bindFilter(typedQuery, query);
+        if (query.getAfterId() != null) {
+            typedQuery.setParameter("afterCreatedAt", query.getAfterCreatedAt());
+            typedQuery.setParameter("afterId", query.getAfterId());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public long countListItems(NoteListQuery query) {
+        TypedQuery<Long> typedQuery = entityManager
+                .createQuery("select count(n) from Note n " + whereClause(query), Long.class);
+        bindFilter(typedQuery, query);
+        return typedQuery.getSingleResult();
+    }
+
+    private static String whereClause(NoteListQuery query) {
+        return query.isUncategorized()
+                ? "where n.user.id = :userId and n.category is null"
+                : "where n.user.id = :userId and n.category.id = :categoryId";
+    }
+
+    private static void bindFilter(TypedQuery<?> typedQuery, NoteListQuery query) {
+        typedQuery.setParameter("userId", query.getUserId());
+        if (!query.isUncategorized()) {
+            typedQuery.setParameter("categoryId", query.getCategoryId());
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.aiplannotes.repository;
+
+import com.aiplannotes.dto.TodayTaskResponse;
+import com.aiplannotes.entity.PendingReview;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PendingReviewRepository extends JpaRepository<PendingReview, Long> {
+    // Everything the task list needs in one round-trip; Note.content is never loaded
+    @Query("select new com.aiplannotes.dto.TodayTaskResponse(" +
+           "n.id, n.title, c.name, n.isSupervised, n.supervisionDurationSeconds, p.stageNumber, s.summaryText) " +
+           "from PendingReview p join p.note n left join n.category c left join AiSummary s on s.note = n " +
+           "where p.user.id = :userId and p.scheduledFor <= :date")
+    List<TodayTaskResponse> findTodayTasks(@Param("userId") Long userId, @Param("date") LocalDate date);
+    
+    // Locked so concurrent submissions for the same note cannot both advance it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PendingReview p " +
+           "where p.noteId = :noteId and p.user.id = :userId and p.scheduledFor <= :date")
+    Optional<PendingReview> findDueForUpdate(
+        @Param("noteId") Long noteId, @Param("userId") Long userId, @Param("date") LocalDate date);
+    
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select p from PendingReview p " +
+           "where p.noteId in :noteIds and p.user.id = :userId and p.scheduledFor <= :date")
+    List<PendingReview> findAllDueForUpdate(
+        @Param("noteIds") Collection<Long> noteIds, @Param("userId") Long userId, @Param("date") LocalDate date);
+    
+    // Reviews due before the earliest current date anywhere, due for every user
+    long countByScheduledForBefore(LocalDate date);
+    
+    // Around the current date it depends on each user's zone: [timeZone, scheduledFor, count] rows
+    @Query("select u.timeZone, p.scheduledFor, count(p) from PendingReview p join p.user u " +
+           "where p.scheduledFor between :from and :to group by u.timeZone, p.scheduledFor")
+    List<Object[]> countByTimeZoneAndDate(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -0,0 +1,85 @@
+package com.aiplannotes.search;
+
+import org.springframework.web.util.HtmlUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Marks query term matches in note text with {@code <em>} tags. The rest of
+ * the text is HTML-escaped, so the result can be rendered as HTML.
+ */
+public final class Highlighter {
+
+    // Context kept before the first match of a snippet
+    private static final int SNIPPET_LEAD = 30;
+
+    private Highlighter() {
+    }
+
+    /**
+     * Highlight every match in the whole text
+     */
+    public static String highlight(String text, Set<String> terms) {
+        return render(text, matches(text, terms), 0, text.length());
+    }
+
+    /**
+     * Highlight a window of at most {@code maxLength} characters starting
+     * shortly before the first match, marking cut text with an ellipsis
+     */
+    public static String snippet(String text, Set<String> terms, int maxLength) {
+        List<int[]> matches = matches(text, terms);
+        int start = 0;
+        if (!matches.isEmpty() && text.length() > maxLength) {
+            start = Math.max(0, Math.min(matches.get(0)[0] - SNIPPET_LEAD, text.length() - maxLength));
+        }
+        int end = Math.min(text.length(), start + maxLength);
+        // Never split a surrogate pair
+        if (start > 0 && Character.isLowSurrogate(text.charAt(start))) {
+            start++;
+        }
+        if (end < text.length() && Character.isLowSurrogate(text.charAt(end))) {
+            end--;
+        }
+        return (start > 0 ? "…" : "") + render(text, matches, start, end) + (end < text.length() ? "…" : "");
+    }
+
+    /**
+     * Ranges of matching tokens, overlapping ranges merged
+     */
+    private static List<int[]> matches(String text, Set<String> terms) {
+        List<int[]> ranges = new ArrayList<>();
+        for (Tokenizer.Token token : Tokenizer.tokenize(text)) {
+            if (!terms.contains(token.getTerm())) {
+                continue;
+            }
+            int[] last = ranges.isEmpty() ? null : ranges.get(ranges.size() - 1);
+            if (last != null && token.getStart() <= last[1]) {
+                last[1] = Math.max(last[1], token.getEnd());
+            } else {
+                ranges.add(new int[]{token.getStart(), token.getEnd()});
+            }
+        }
+        return ranges;
+    }
+
+    private static String render(String text, List<int[]> matches, int start, int end) {
+        StringBuilder out = new StringBuilder();
+        int position = start;
+        for (int[] match : matches) {
+            if (match[1] <= start || match[0] >= end) {
+                continue;
+            }
+            int from = Math.max(match[0], start);
+            int to = Math.min(match[1], end);
+            out.append(HtmlUtils.htmlEscape(text.substring(position, from)))
+                    .append("<em>")
+                    .append(HtmlUtils.htmlEscape(text.substring(from, to)))
+                    .append("</em>");
+            position = to;
+        }
+        return out.append(HtmlUtils.htmlEscape(text.substring(position, end))).toString();
+    }
+}
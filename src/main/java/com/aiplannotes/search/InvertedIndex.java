@@ -0,0 +1,305 @@
+package com.aiplannotes.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over one user's notes, ranked with BM25. Title
+ * terms count {@value #TITLE_BOOST} times. Safe for concurrent searches and
+ * updates.
+ *
+ * <p>Every indexed note gets a small integer ordinal, so postings are
+ * primitive arrays sorted by ordinal; a posting costs 8 bytes instead of a
+ * boxed map entry. Ordinals of replaced or removed notes go on a free list
+ * and are handed out again, so the ordinal range, and with it the memory and
+ * the per-query score array, follows the most notes ever indexed at once
+ * rather than the number of edits.
+ */
+public class InvertedIndex {
+
+    private static final int TITLE_BOOST = 3;
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    private static final Comparator<Hit> BY_SCORE = Comparator.comparingDouble(Hit::getScore)
+            .thenComparing(Hit::getNoteId, Comparator.reverseOrder());
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final Map<String, Postings> postings = new HashMap<>();
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    // Indexed by ordinal
+    private long[] noteIds = new long[16];
+    private int[] lengths = new int[16];
+
+    private int nextOrdinal;
+
+    // Ordinals of removed notes, reused before nextOrdinal grows
+    private int[] freeOrdinals = new int[16];
+    private int freeCount;
+
+    private long totalLength;
+
+    /**
+     * Add a note or replace its previous version
+     */
+    public void put(Long noteId, String title, String content) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = 0;
+        for (Tokenizer.Token token : Tokenizer.tokenize(title)) {
+            frequencies.merge(token.getTerm(), TITLE_BOOST, Integer::sum);
+            length += TITLE_BOOST;
+        }
+        for (Tokenizer.Token token : Tokenizer.tokenize(content)) {
+            frequencies.merge(token.getTerm(), 1, Integer::sum);
+            length++;
+        }
+
+        lock.writeLock().lock();
+        try {
+            removeLocked(noteId);
+            int ordinal = allocateOrdinal();
+            noteIds[ordinal] = noteId;
+            lengths[ordinal] = length;
+            totalLength += length;
+
+            Postings[] terms = new Postings[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                Postings termPostings = postings.computeIfAbsent(entry.getKey(), Postings::new);
+                termPostings.add(ordinal, entry.getValue());
+                terms[i++] = termPostings;
+            }
+            documents.put(noteId, new Document(ordinal, terms));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Add a note only if it is not indexed yet
+     * @return whether the note was added
+     */
+    public boolean putIfAbsent(Long noteId, String title, String content) {
+        lock.writeLock().lock();
+        try {
+            if (documents.containsKey(noteId)) {
+                return false;
+            }
+            put(noteId, title, content);
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long noteId) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(noteId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int allocateOrdinal() {
+        if (freeCount > 0) {
+            return freeOrdinals[--freeCount];
+        }
+        int ordinal = nextOrdinal++;
+        if (ordinal == noteIds.length) {
+            noteIds = Arrays.copyOf(noteIds, ordinal * 2);
+            lengths = Arrays.copyOf(lengths, ordinal * 2);
+        }
+        return ordinal;
+    }
+
+    private void removeLocked(Long noteId) {
+        Document document = documents.remove(noteId);
+        if (document == null) {
+            return;
+        }
+        for (Postings termPostings : document.getTerms()) {
+            termPostings.remove(document.getOrdinal());
+            if (termPostings.size == 0) {
+                postings.remove(termPostings.term);
+            }
+        }
+        totalLength -= lengths[document.getOrdinal()];
+        if (freeCount == freeOrdinals.length) {
+            freeOrdinals = Arrays.copyOf(freeOrdinals, freeCount * 2);
+        }
+        freeOrdinals[freeCount++] = document.getOrdinal();
+    }
+
+    /**
+     * Rank the notes matching any query term
+     * @param offset number of top hits to skip
+     * @param limit maximum number of hits to return
+     */
+    public Result search(String query, int offset, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (Tokenizer.Token token : Tokenizer.tokenizeQuery(query)) {
+            terms.add(token.getTerm());
+        }
+
+        lock.readLock().lock();
+        try {
+            int documentCount = documents.size();
+            if (documentCount == 0 || terms.isEmpty()) {
+                return new Result(0, List.of(), terms);
+            }
+            double averageLength = (double) totalLength / documentCount;
+
+            double[] scores = new double[nextOrdinal];
+            int[] matched = new int[16];
+            int matches = 0;
+            for (String term : terms) {
+                Postings termPostings = postings.get(term);
+                if (termPostings == null) {
+                    continue;
+                }
+                int df = termPostings.size;
+                double idf = Math.log(1 + (documentCount - df + 0.5) / (df + 0.5));
+                for (int i = 0; i < df; i++) {
+                    int ordinal = termPostings.ordinals[i];
+                    int frequency = termPostings.frequencies[i];
+                    double norm = K1 * (1 - B + B * lengths[ordinal] / averageLength);
+                    // Every match scores above zero
+                    if (scores[ordinal] == 0) {
+                        if (matches == matched.length) {
+                            matched = Arrays.copyOf(matched, matches * 2);
+                        }
+                        matched[matches++] = ordinal;
+                    }
+                    scores[ordinal] += idf * frequency * (K1 + 1) / (frequency + norm);
+                }
+            }
+
+            // Keep only the best offset + limit hits
+            int wanted = offset + limit;
+            PriorityQueue<Hit> top = new PriorityQueue<>(Math.max(1, Math.min(wanted, matches)), BY_SCORE);
+            for (int i = 0; i < matches; i++) {
+                Hit hit = new Hit(noteIds[matched[i]], scores[matched[i]]);
+                if (top.size() < wanted) {
+                    top.add(hit);
+                } else if (wanted > 0 && BY_SCORE.compare(hit, top.peek()) > 0) {
+                    top.poll();
+                    top.add(hit);
+                }
+            }
+            List<Hit> hits = new ArrayList<>(top);
+            hits.sort(BY_SCORE.reversed());
+            List<Hit> page = offset >= hits.size() ? List.of() : hits.subList(offset, hits.size());
+            return new Result(matches, List.copyOf(page), terms);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Number of ordinals ever handed out, live or free
+     */
+    int ordinalCount() {
+        lock.readLock().lock();
+        try {
+            return nextOrdinal;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Notes containing one term, as parallel arrays sorted by ordinal
+     */
+    private static class Postings {
+        final String term;
+        int[] ordinals = new int[2];
+        int[] frequencies = new int[2];
+        int size;
+
+        Postings(String term) {
+            this.term = term;
+        }
+
+        // New ordinals append at the end; reused ones are inserted in place
+        void add(int ordinal, int frequency) {
+            if (size == ordinals.length) {
+                ordinals = Arrays.copyOf(ordinals, size * 2);
+                frequencies = Arrays.copyOf(frequencies, size * 2);
+            }
+            int i = size;
+            if (size > 0 && ordinals[size - 1] > ordinal) {
+                i = -Arrays.binarySearch(ordinals, 0, size, ordinal) - 1;
+                System.arraycopy(ordinals, i, ordinals, i + 1, size - i);
+                System.arraycopy(frequencies, i, frequencies, i + 1, size - i);
+            }
+            ordinals[i] = ordinal;
+            frequencies[i] = frequency;
+            size++;
+        }
+
+        void remove(int ordinal) {
+            int i = Arrays.binarySearch(ordinals, 0, size, ordinal);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(ordinals, i + 1, ordinals, i, size - i - 1);
+            System.arraycopy(frequencies, i + 1, frequencies, i, size - i - 1);
+            size--;
+        }
+    }
+
+    @Value
+    private static class Document {
+        int ordinal;
+        Postings[] terms;
+    }
+
+    @Value
+    public static class Hit {
+        Long noteId;
+        double score;
+    }
+
+    /**
+     * One page of hits, the number of matching notes and the query terms
+     */
+    @Value
+    public static class Result {
+        int totalHits;
+        List<Hit> hits;
+        Set<String> terms;
+    }
+}
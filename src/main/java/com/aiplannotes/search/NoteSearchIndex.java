@@ -0,0 +1,157 @@
+package com.aiplannotes.search;
+
+import com.aiplannotes.dto.NoteSearchSource;
+import com.aiplannotes.event.NoteCreatedEvent;
+import com.aiplannotes.event.NoteDeletedEvent;
+import com.aiplannotes.event.NoteUpdatedEvent;
+import com.aiplannotes.event.NotesImportedEvent;
+import com.aiplannotes.exception.BusinessException;
+import com.aiplannotes.repository.NoteRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * Full-text index of all notes on this node, one {@link InvertedIndex} per
+ * user so searches are scoped to the user and ranked against their own
+ * notes. Built from the database at startup and kept in sync by the note
+ * events after each commit.
+ */
+@Slf4j
+@Component
+public class NoteSearchIndex {
+
+    @Autowired
+    private NoteRepository noteRepository;
+
+    @Value("${search.index.rebuild-chunk-size:500}")
+    private int chunkSize;
+
+    private volatile Map<Long, InvertedIndex> indexes = new ConcurrentHashMap<>();
+
+    // Set while a rebuild runs; note events are applied to both indexes
+    private volatile Rebuild rebuild;
+
+    private volatile boolean ready;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild();
+    }
+
+    /**
+     * Rebuild the index from the database. Searches keep using the current
+     * index until the new one is complete; writes committed meanwhile win
+     * over the rows read by the rebuild.
+     * @return the number of notes indexed
+     */
+    public synchronized int rebuild() {
+        long startedAt = System.nanoTime();
+        Rebuild current = new Rebuild();
+        rebuild = current;
+        try {
+            int notes = 0;
+            long afterId = 0L;
+            List<NoteSearchSource> chunk;
+            do {
+                chunk = noteRepository.findSearchSources(afterId, PageRequest.of(0, chunkSize));
+                for (NoteSearchSource source : chunk) {
+                    InvertedIndex index = current.index(source.getUserId());
+                    synchronized (index) {
+                        if (!current.touched.contains(source.getNoteId())
+                                && index.putIfAbsent(source.getNoteId(), source.getTitle(), source.getContent())) {
+                            notes++;
+                        }
+                    }
+                    afterId = source.getNoteId();
+                }
+            } while (chunk.size() == chunkSize);
+
+            indexes = current.indexes;
+            ready = true;
+            log.info("Search index rebuilt with {} notes in {} ms", notes, (System.nanoTime() - startedAt) / 1_000_000);
+            return notes;
+        } finally {
+            rebuild = null;
+        }
+    }
+
+    /**
+     * Search one user's notes
+     */
+    public InvertedIndex.Result search(Long userId, String query, int offset, int limit) {
+        if (!ready) {
+            throw new BusinessException(503, "Search index is being built, please retry shortly");
+        }
+        InvertedIndex index = indexes.get(userId);
+        if (index == null) {
+            return new InvertedIndex.Result(0, List.of(), Set.of());
+        }
+        return index.search(query, offset, limit);
+    }
+
+    public int size() {
+        return indexes.values().stream().mapToInt(InvertedIndex::size).sum();
+    }
+
+    public int termCount() {
+        return indexes.values().stream().mapToInt(InvertedIndex::termCount).sum();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteCreated(NoteCreatedEvent event) {
+        apply(event.getUserId(), event.getNoteId(),
+                index -> index.put(event.getNoteId(), event.getTitle(), event.getContent()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotesImported(NotesImportedEvent event) {
+        for (NoteCreatedEvent note : event.getNotes()) {
+            onNoteCreated(note);
+        }
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteUpdated(NoteUpdatedEvent event) {
+        apply(event.getUserId(), event.getNoteId(),
+                index -> index.put(event.getNoteId(), event.getTitle(), event.getContent()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteDeleted(NoteDeletedEvent event) {
+        apply(event.getUserId(), event.getNoteId(), index -> index.remove(event.getNoteId()));
+    }
+
+    private void apply(Long userId, Long noteId, Consumer<InvertedIndex> change) {
+        Rebuild current = rebuild;
+        change.accept(indexes.computeIfAbsent(userId, id -> new InvertedIndex()));
+        if (current != null) {
+            InvertedIndex index = current.index(userId);
+            synchronized (index) {
+                current.touched.add(noteId);
+                change.accept(index);
+            }
+        }
+    }
+
+    private static class Rebuild {
+        final Map<Long, InvertedIndex> indexes = new ConcurrentHashMap<>();
+        // Notes written since the rebuild started; the rebuild skips their rows
+        final Set<Long> touched = ConcurrentHashMap.newKeySet();
+
+        InvertedIndex index(Long userId) {
+            return indexes.computeIfAbsent(userId, id -> new InvertedIndex());
+        }
+    }
+}
@@ -0,0 +1,32 @@
+package com.aiplannotes.search;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint {@code searchindex}: GET shows the index size and POST
+ * rebuilds it from the database. Not exposed over HTTP unless added to
+ * management.endpoints.web.exposure.include.
+ */
+@Component
+@Endpoint(id = "searchindex")
+public class SearchIndexEndpoint {
+
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+
+    @ReadOperation
+    public Map<String, Integer> stats() {
+        return Map.of("notes", noteSearchIndex.size(), "terms", noteSearchIndex.termCount());
+    }
+
+    @WriteOperation
+    public Map<String, Integer> rebuild() {
+        return Map.of("notes", noteSearchIndex.rebuild());
+    }
+}
@@ -0,0 +1,106 @@
+package com.aiplannotes.search;
+
+import lombok.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Splits text into lower-cased search terms with their character offsets.
+ * Runs of letters and digits form one term. Chinese, Japanese and Korean
+ * text has no word separators, so each character and each pair of adjacent
+ * characters in a CJK run is a term; a query for a word of two or more
+ * characters matches on its bigrams.
+ */
+public final class Tokenizer {
+
+    // Longer runs are usually encoded data, not words
+    private static final int MAX_WORD_LENGTH = 64;
+
+    private Tokenizer() {
+    }
+
+    /**
+     * Terms for indexing: every CJK character and every CJK bigram
+     */
+    public static List<Token> tokenize(String text) {
+        return tokenize(text, true);
+    }
+
+    /**
+     * Terms for a query: CJK bigrams, or the character itself for a single
+     * CJK character between other text
+     */
+    public static List<Token> tokenizeQuery(String text) {
+        return tokenize(text, false);
+    }
+
+    private static List<Token> tokenize(String text, boolean cjkUnigrams) {
+        List<Token> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        int i = 0;
+        while (i < text.length()) {
+            int codePoint = text.codePointAt(i);
+            if (isCjk(codePoint)) {
+                int end = i;
+                List<Integer> starts = new ArrayList<>();
+                while (end < text.length() && isCjk(text.codePointAt(end))) {
+                    starts.add(end);
+                    end += Character.charCount(text.codePointAt(end));
+                }
+                starts.add(end);
+                int characters = starts.size() - 1;
+                for (int c = 0; c < characters; c++) {
+                    if (cjkUnigrams || characters == 1) {
+                        tokens.add(token(text, starts.get(c), starts.get(c + 1)));
+                    }
+                    if (c + 1 < characters) {
+                        tokens.add(token(text, starts.get(c), starts.get(c + 2)));
+                    }
+                }
+                i = end;
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                int end = i;
+                while (end < text.length()) {
+                    int next = text.codePointAt(end);
+                    if (!Character.isLetterOrDigit(next) || isCjk(next)) {
+                        break;
+                    }
+                    end += Character.charCount(next);
+                }
+                if (end - i <= MAX_WORD_LENGTH) {
+                    tokens.add(token(text, i, end));
+                }
+                i = end;
+            } else {
+                i += Character.charCount(codePoint);
+            }
+        }
+        return tokens;
+    }
+
+    private static Token token(String text, int start, int end) {
+        return new Token(text.substring(start, end).toLowerCase(Locale.ROOT), start, end);
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+
+    /**
+     * A term and the range [start, end) of the original text it came from
+     */
+    @Value
+    public static class Token {
+        String term;
+        int start;
+        int end;
+    }
+}
@@ -0,0 +1,27 @@
+package com.aiplannotes.security;
+
+import lombok.Getter;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * Principal that carries the user ID so it is resolved once per request
+ * instead of being looked up again by every service call.
+ */
+@Getter
+public class AuthenticatedUser extends org.springframework.security.core.userdetails.User {
+
+    private final Long id;
+
+    public AuthenticatedUser(Long id, String username, String password,
+                             Collection<? extends GrantedAuthority> authorities) {
+        super(username, password, authorities);
+        this.id = id;
+    }
+
+    public AuthenticatedUser(Long id, String username) {
+        this(id, username, "", Collections.emptyList());
+    }
+}
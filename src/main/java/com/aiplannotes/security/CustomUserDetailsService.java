@@ -16,12 +16,19 @@ public class CustomUserDetailsService implements UserDetailsService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private UserIdCache userIdCache;
+
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
         User user = userRepository.findByUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
         
-        return new org.springframework.security.core.userdetails.User(
+        // Prime the ID cache so the first authenticated request after login skips the lookup
+        userIdCache.put(user.getUsername(), user.getId());
+        
+        return new AuthenticatedUser(
+                user.getId(),
                 user.getUsername(),
                 user.getPasswordHash(),
                 new ArrayList<>()
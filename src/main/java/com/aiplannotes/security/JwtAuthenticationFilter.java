@@ -1,21 +1,29 @@
 package com.aiplannotes.security;
 
+import com.aiplannotes.util.JwtClaims;
 import com.aiplannotes.util.JwtUtil;
 import io.jsonwebtoken.ExpiredJwtException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
+import org.springframework.boot.actuate.metrics.export.prometheus.PrometheusScrapeEndpoint;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
-import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
+import org.springframework.security.web.util.matcher.RequestMatcher;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.concurrent.TimeUnit;
 
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
@@ -24,7 +32,49 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
     private JwtUtil jwtUtil;
 
     @Autowired
-    private UserDetailsService userDetailsService;
+    private UserIdCache userIdCache;
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${jwt.trusted-token.enabled:false}")
+    private boolean trustedTokenEnabled;
+
+    // Scrapes carry their own token (see SecurityConfig), which is not a JWT
+    private final RequestMatcher prometheusScrape = EndpointRequest.to(PrometheusScrapeEndpoint.class);
+
+    private Timer validationTimer;
+
+    private Counter expiredCounter;
+
+    private Counter invalidCounter;
+
+    private Counter revokedCounter;
+
+    @PostConstruct
+    void init() {
+        validationTimer = Timer.builder("jwt.validation")
+                .description("Time to verify a bearer token and resolve its user")
+                .register(meterRegistry);
+        expiredCounter = failureCounter("expired");
+        invalidCounter = failureCounter("invalid");
+        // Revoked token version, or the user no longer exists
+        revokedCounter = failureCounter("revoked");
+    }
+
+    private Counter failureCounter(String reason) {
+        return Counter.builder("jwt.validation.failures")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return prometheusScrape.matches(request);
+    }
 
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
@@ -32,30 +82,71 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         
         final String authorizationHeader = request.getHeader("Authorization");
 
-        String username = null;
-        String jwt = null;
-
-        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
-            jwt = authorizationHeader.substring(7);
-            try {
-                username = jwtUtil.extractUsername(jwt);
-            } catch (ExpiredJwtException e) {
-                logger.warn("JWT Token has expired");
-            } catch (Exception e) {
-                logger.warn("Unable to parse JWT Token");
-            }
-        }
-
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-            UserDetails userDetails = this.userDetailsService.loadUserByUsername(username);
+        if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")
+                && SecurityContextHolder.getContext().getAuthentication() == null) {
+            String jwt = authorizationHeader.substring(7);
+            long startedAt = System.nanoTime();
+            AuthenticatedUser principal = authenticate(jwt);
+            validationTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
 
-            if (jwtUtil.validateToken(jwt, userDetails.getUsername())) {
+            if (principal != null) {
                 UsernamePasswordAuthenticationToken authenticationToken = 
-                    new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+                    new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities());
                 authenticationToken.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
                 SecurityContextHolder.getContext().setAuthentication(authenticationToken);
             }
         }
         filterChain.doFilter(request, response);
     }
+
+    /**
+     * @return the principal for a valid token, or null when it is rejected
+     */
+    private AuthenticatedUser authenticate(String jwt) {
+        JwtClaims claims;
+        try {
+            // Signature and expiry are verified here, once per request
+            claims = jwtUtil.parseToken(jwt);
+        } catch (ExpiredJwtException e) {
+            logger.warn("JWT Token has expired");
+            expiredCounter.increment();
+            return null;
+        } catch (Exception e) {
+            logger.warn("Unable to parse JWT Token");
+            invalidCounter.increment();
+            return null;
+        }
+        if (claims.getSubject() == null) {
+            invalidCounter.increment();
+            return null;
+        }
+
+        // Resolve the user ID once; services read it back from the principal
+        Long userId = resolveUserId(claims);
+        if (userId == null) {
+            revokedCounter.increment();
+            return null;
+        }
+        return new AuthenticatedUser(userId, claims.getSubject());
+    }
+
+    /**
+     * Resolve the user ID for a token. In trusted-token mode the ID is taken
+     * straight from the verified claims; otherwise it goes through the ID cache.
+     * Tokens carrying a revoked version are rejected in both modes.
+     */
+    private Long resolveUserId(JwtClaims claims) {
+        Long tokenUserId = claims.getUserId();
+        Integer tokenVersion = claims.getTokenVersion();
+
+        if (tokenUserId != null && tokenVersion != null) {
+            if (!tokenVersionRegistry.isCurrent(tokenUserId, tokenVersion)) {
+                return null;
+            }
+            if (trustedTokenEnabled) {
+                return tokenUserId;
+            }
+        }
+        return userIdCache.getUserId(claims.getSubject()).orElse(null);
+    }
 }
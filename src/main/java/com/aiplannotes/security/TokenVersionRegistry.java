@@ -0,0 +1,86 @@
+package com.aiplannotes.security;
+
+import com.aiplannotes.event.TokensRevokedEvent;
+import com.aiplannotes.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory user ID to token version table used to revoke trusted tokens
+ * without a per-request database lookup. The whole table is reloaded in the
+ * background; users missing from the snapshot are looked up once on demand,
+ * and users that do not exist are remembered as absent until the next reload.
+ * <p>
+ * Versions only move forward: the snapshot is merged rather than swapped in,
+ * so a revocation recorded while the snapshot was loading is not undone.
+ */
+@Component
+public class TokenVersionRegistry {
+
+    // Deleted or unknown user; tokens naming it are rejected without a lookup
+    private static final int ABSENT = -1;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private final Map<Long, Integer> versions = new ConcurrentHashMap<>();
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${jwt.trusted-token.version-refresh-interval:30000}")
+    public void refresh() {
+        List<Object[]> rows = userRepository.findAllTokenVersions();
+        Set<Long> userIds = new HashSet<>(rows.size() * 2);
+        for (Object[] row : rows) {
+            Long userId = (Long) row[0];
+            userIds.add(userId);
+            versions.merge(userId, (Integer) row[1], TokenVersionRegistry::newer);
+        }
+        // Users deleted since the last reload; they are looked up again if a token names them
+        versions.keySet().retainAll(userIds);
+    }
+
+    /**
+     * Check whether a token version is still current for the given user
+     * @param userId the user ID from the token
+     * @param tokenVersion the version from the token
+     * @return false if the user no longer exists or the token has been revoked
+     */
+    public boolean isCurrent(Long userId, Integer tokenVersion) {
+        Integer current = versions.get(userId);
+        if (current == null) {
+            Optional<Integer> loaded = userRepository.findTokenVersionById(userId);
+            current = versions.merge(userId, loaded.orElse(ABSENT), TokenVersionRegistry::newer);
+        }
+        return current != ABSENT && tokenVersion >= current;
+    }
+
+    public void update(Long userId, Integer version) {
+        versions.merge(userId, version, TokenVersionRegistry::newer);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTokensRevoked(TokensRevokedEvent event) {
+        update(event.getUserId(), event.getTokenVersion());
+    }
+
+    /**
+     * Reject tokens of a deleted user, even if a snapshot loaded before the
+     * deletion still lists it
+     */
+    public void remove(Long userId) {
+        versions.put(userId, ABSENT);
+    }
+
+    // A deleted user stays deleted; user IDs are never reused
+    private static Integer newer(Integer current, Integer loaded) {
+        return current == ABSENT ? ABSENT : Math.max(current, loaded);
+    }
+}
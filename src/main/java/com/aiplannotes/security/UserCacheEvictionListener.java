@@ -0,0 +1,35 @@
+package com.aiplannotes.security;
+
+import com.aiplannotes.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps {@link UserIdCache} and {@link TokenVersionRegistry} consistent when
+ * users are created or deleted.
+ */
+@Component
+public class UserCacheEvictionListener {
+
+    @Lazy
+    @Autowired
+    private UserIdCache userIdCache;
+
+    @Lazy
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @PostPersist
+    public void onCreate(User user) {
+        userIdCache.evict(user.getUsername());
+    }
+
+    @PostRemove
+    public void onDelete(User user) {
+        userIdCache.evict(user.getUsername());
+        tokenVersionRegistry.remove(user.getId());
+    }
+}
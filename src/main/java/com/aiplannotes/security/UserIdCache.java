@@ -0,0 +1,72 @@
+package com.aiplannotes.security;
+
+import com.aiplannotes.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-evicting username to user ID cache shared by the JWT filter
+ * and SecurityUtils. Unknown usernames are never cached.
+ */
+@Component
+public class UserIdCache {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${security.user-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${security.user-cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<String, Long> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "userIdCache"));
+    }
+
+    /**
+     * Resolve the user ID for a username, hitting the database only on a cache miss
+     * @param username the username
+     * @return the user ID, or empty if the user does not exist
+     */
+    public Optional<Long> getUserId(String username) {
+        return Optional.ofNullable(cache.get(username, key -> userRepository.findIdByUsername(key).orElse(null)));
+    }
+
+    public void put(String username, Long userId) {
+        cache.put(username, userId);
+    }
+
+    public void evict(String username) {
+        cache.invalidate(username);
+    }
+
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+}
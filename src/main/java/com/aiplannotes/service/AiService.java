@@ -1,18 +1,50 @@
 package com.aiplannotes.service;
 
+import com.aiplannotes.ai.ChunkedSummary;
+import com.aiplannotes.ai.IncrementalSummarizer;
+import com.aiplannotes.ai.SummaryCache;
+import com.aiplannotes.ai.SummaryGateway;
+import com.aiplannotes.ai.SummaryJob;
+import com.aiplannotes.ai.SummaryJobManager;
+import com.aiplannotes.ai.SummaryStream;
+import com.aiplannotes.ai.SummaryStreamListener;
+import com.aiplannotes.config.SecondLevelCache;
+import com.aiplannotes.dto.ApiResponse;
 import com.aiplannotes.dto.GenerateSummaryRequest;
+import com.aiplannotes.dto.SummaryJobResponse;
 import com.aiplannotes.dto.SummaryResponse;
 import com.aiplannotes.entity.AiSummary;
+import com.aiplannotes.entity.AiSummaryChunk;
 import com.aiplannotes.entity.Note;
+import com.aiplannotes.event.NoteContentChangedEvent;
+import com.aiplannotes.event.SummaryStoredEvent;
 import com.aiplannotes.exception.BusinessException;
+import com.aiplannotes.repository.AiSummaryChunkRepository;
 import com.aiplannotes.repository.AiSummaryRepository;
 import com.aiplannotes.repository.NoteRepository;
 import com.aiplannotes.util.SecurityUtils;
+import io.micrometer.core.annotation.Timed;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+
+@Slf4j
 @Service
+@Timed("service.calls")
 public class AiService {
     
     @Autowired
@@ -21,51 +53,279 @@ public class AiService {
     @Autowired
     private AiSummaryRepository aiSummaryRepository;
     
-    @Transactional
-    public SummaryResponse generateSummary(GenerateSummaryRequest request) {
+    @Autowired
+    private AiSummaryChunkRepository aiSummaryChunkRepository;
+    
+    @Autowired
+    private SummaryGateway summaryGateway;
+    
+    @Autowired
+    private SummaryCache summaryCache;
+    
+    @Autowired
+    private IncrementalSummarizer incrementalSummarizer;
+    
+    @Autowired
+    private SummaryJobManager summaryJobManager;
+    
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+    
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${ai.summary.stream-timeout:2m}")
+    private Duration streamTimeout;
+    
+    /**
+     * Queue summary generation for a note and return immediately. The generator
+     * is called through the summary gateway from the job worker pool, outside any
+     * transaction; only the final write of the AiSummary is transactional.
+     * If the stored summary was generated from the same content by the current
+     * generator version, it is returned as an already finished job.
+     */
+    public SummaryJobResponse submitSummaryJob(GenerateSummaryRequest request) {
         Long userId = SecurityUtils.getCurrentUserId();
         
         // Verify note exists and belongs to current user
         Note note = noteRepository.findByIdAndUserId(request.getNoteId(), userId)
                 .orElseThrow(() -> new BusinessException(404, "Note not found"));
         
-        // Generate mock summary (V1.0 simple implementation)
-        String summaryText = generateMockSummary(note);
-        String modelUsed = "mock-v1.0";
-        
-        // Check if AI summary already exists (update) or create new one
-        AiSummary aiSummary = aiSummaryRepository.findByNoteId(request.getNoteId())
-                .orElse(new AiSummary());
+        Long noteId = note.getId();
+        String title = note.getTitle();
+        String content = note.getContent();
+        Timestamp sourceUpdatedAt = note.getUpdatedAt();
+        String contentHash = SummaryCache.contentHash(title, content);
+        String generatorVersion = summaryGateway.getGeneratorVersion();
         
-        aiSummary.setNote(note);
-        aiSummary.setSummaryText(summaryText);
-        aiSummary.setModelUsed(modelUsed);
+        Optional<AiSummary> upToDate = findUpToDateSummary(noteId, contentHash, generatorVersion);
+        if (upToDate.isPresent()) {
+            return SummaryJobResponse.from(summaryJobManager.completed(userId, noteId, toResponse(upToDate.get())));
+        }
         
-        AiSummary savedSummary = aiSummaryRepository.save(aiSummary);
+        SummaryJob job = summaryJobManager.submit(userId, noteId, () ->
+                generateAndStore(noteId, title, content, sourceUpdatedAt));
         
-        return new SummaryResponse(
-                savedSummary.getSummaryText(),
-                savedSummary.getModelUsed(),
-                savedSummary.getCreatedAt()
-        );
+        return SummaryJobResponse.from(job);
+    }
+    
+    /**
+     * Queue regeneration of a summary that an update has just made stale. Only
+     * the chunks that changed are summarised again. If the queue is full the
+     * summary stays stale and is picked up by the backfill.
+     */
+    @TransactionalEventListener
+    public void onNoteContentChanged(NoteContentChangedEvent event) {
+        Long noteId = event.getNoteId();
+        try {
+            summaryJobManager.submit(event.getUserId(), noteId, () -> {
+                // Read the note when the job runs, so a job queued behind further edits sees the latest one
+                Note note = noteRepository.findById(noteId)
+                        .orElseThrow(() -> new BusinessException(404, "Note not found"));
+                return generateAndStore(noteId, note.getTitle(), note.getContent(), note.getUpdatedAt());
+            });
+        } catch (BusinessException e) {
+            log.warn("Could not queue summary regeneration for note {}: {}", noteId, e.getMessage());
+        }
+    }
+    
+    private SummaryResponse generateAndStore(Long noteId, String title, String content, Timestamp sourceUpdatedAt) {
+        String contentHash = SummaryCache.contentHash(title, content);
+        String generatorVersion = summaryGateway.getGeneratorVersion();
+        ChunkedSummary summary = incrementalSummarizer.summarize(noteId, title, content, contentHash);
+        return storeSummary(noteId, summary.getSummaryText(), summary.getChunks(), contentHash,
+                generatorVersion, sourceUpdatedAt);
     }
     
     /**
-     * Generate a mock AI summary for V1.0
-     * Extracts first 200 characters or generates a simple description
+     * Stream a summary for a note as Server-Sent Events: "token" events carry the
+     * text as it is generated, then a single "done" event carries the saved
+     * summary, or an "error" event the failure. The summary is saved only once
+     * the whole text has been generated; if the client disconnects, generation
+     * is cancelled, its worker thread freed and nothing is saved.
      */
-    private String generateMockSummary(Note note) {
+    public SseEmitter streamSummary(GenerateSummaryRequest request) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        
+        // Verify note exists and belongs to current user
+        Note note = noteRepository.findByIdAndUserId(request.getNoteId(), userId)
+                .orElseThrow(() -> new BusinessException(404, "Note not found"));
+        
+        Long noteId = note.getId();
+        String title = note.getTitle();
         String content = note.getContent();
+        Timestamp sourceUpdatedAt = note.getUpdatedAt();
+        String contentHash = SummaryCache.contentHash(title, content);
+        String generatorVersion = summaryGateway.getGeneratorVersion();
+        
+        SseEmitter emitter = new SseEmitter(streamTimeout.toMillis());
         
-        if (content == null || content.isEmpty()) {
-            return "这是一篇关于" + note.getTitle() + "的笔记，主要内容包括...";
+        Optional<AiSummary> upToDate = findUpToDateSummary(noteId, contentHash, generatorVersion);
+        if (upToDate.isPresent()) {
+            SummaryResponse summary = toResponse(upToDate.get());
+            sendToken(emitter, summary.getSummaryText());
+            sendDone(emitter, summary);
+            return emitter;
         }
         
-        // Extract first 200 characters
-        if (content.length() <= 200) {
-            return content;
+        Optional<String> cached = summaryCache.getIfReady(contentHash);
+        if (cached.isPresent()) {
+            sendToken(emitter, cached.get());
+            sendDone(emitter, storeSummary(noteId, cached.get(), contentHash, generatorVersion, sourceUpdatedAt));
+            return emitter;
+        }
+        
+        SummaryStream stream = summaryGateway.stream(title, content, new SummaryStreamListener() {
+            @Override
+            public void onToken(String token) {
+                sendToken(emitter, token);
+            }
+            
+            @Override
+            public void onComplete(String summaryText) {
+                try {
+                    SummaryResponse summary = storeSummary(noteId, summaryText, contentHash, generatorVersion, sourceUpdatedAt);
+                    summaryCache.put(contentHash, summaryText);
+                    sendDone(emitter, summary);
+                } catch (RuntimeException e) {
+                    onError(e);
+                }
+            }
+            
+            @Override
+            public void onError(RuntimeException e) {
+                if (e instanceof BusinessException businessException) {
+                    sendError(emitter, businessException.getCode(), businessException.getMessage());
+                } else {
+                    sendError(emitter, 500, "Summary generation failed.");
+                }
+            }
+        });
+        
+        // Client disconnects surface as errors or timeouts of the emitter
+        emitter.onTimeout(stream::cancel);
+        emitter.onError(e -> stream.cancel());
+        emitter.onCompletion(stream::cancel);
+        
+        return emitter;
+    }
+    
+    private static void sendToken(SseEmitter emitter, String token) {
+        try {
+            emitter.send(SseEmitter.event().name("token").data(token));
+        } catch (IOException e) {
+            // The client has gone away
+            throw new CancellationException();
+        }
+    }
+    
+    private static void sendDone(SseEmitter emitter, SummaryResponse summary) {
+        try {
+            emitter.send(SseEmitter.event().name("done").data(summary, MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
+        }
+    }
+    
+    private static void sendError(SseEmitter emitter, int code, String message) {
+        try {
+            emitter.send(SseEmitter.event().name("error").data(ApiResponse.error(code, message), MediaType.APPLICATION_JSON));
+            emitter.complete();
+        } catch (IOException e) {
+            emitter.completeWithError(e);
         }
+    }
+    
+    public SummaryJobResponse getSummaryJob(String jobId) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        
+        SummaryJob job = summaryJobManager.find(jobId)
+                .filter(j -> j.getUserId().equals(userId))
+                .orElseThrow(() -> new BusinessException(404, "Summary job not found"));
         
-        return content.substring(0, 200) + "...";
+        return SummaryJobResponse.from(job);
+    }
+    
+    private Optional<AiSummary> findUpToDateSummary(Long noteId, String contentHash, String generatorVersion) {
+        return aiSummaryRepository.findByNoteId(noteId)
+                .filter(existing -> contentHash.equals(existing.getContentHash())
+                        && generatorVersion.equals(existing.getGeneratorVersion()));
+    }
+    
+    /**
+     * Save a generated summary for a note in its own short transaction
+     * @param sourceUpdatedAt Note.updatedAt of the note version that was summarised
+     */
+    public SummaryResponse storeSummary(Long noteId, String summaryText, String contentHash,
+                                        String generatorVersion, Timestamp sourceUpdatedAt) {
+        return storeSummary(noteId, summaryText, null, contentHash, generatorVersion, sourceUpdatedAt);
+    }
+    
+    /**
+     * Save a generated summary and the chunk summaries it was reduced from
+     * @param chunks replace the note's stored chunk summaries; null keeps them
+     */
+    public SummaryResponse storeSummary(Long noteId, String summaryText, List<ChunkedSummary.Chunk> chunks,
+                                        String contentHash, String generatorVersion, Timestamp sourceUpdatedAt) {
+        return transactionTemplate.execute(status -> {
+            // The note may have been deleted while the summary was being generated
+            Note note = noteRepository.findById(noteId)
+                    .orElseThrow(() -> new BusinessException(404, "Note not found"));
+            
+            // Check if AI summary already exists (update) or create new one
+            AiSummary aiSummary = aiSummaryRepository.findByNoteId(noteId)
+                    .orElse(new AiSummary());
+            
+            aiSummary.setNote(note);
+            aiSummary.setSummaryText(summaryText);
+            aiSummary.setModelUsed(summaryGateway.getModelName());
+            aiSummary.setContentHash(contentHash);
+            aiSummary.setGeneratorVersion(generatorVersion);
+            aiSummary.setSourceUpdatedAt(sourceUpdatedAt);
+            // An edit committed while this summary was generated keeps it stale; its
+            // regeneration request was folded into the running job, so the backfill redoes it
+            aiSummary.setStale(!sourceUpdatedAt.equals(note.getUpdatedAt()));
+            
+            if (chunks != null) {
+                aiSummaryChunkRepository.deleteByNoteId(noteId);
+                List<AiSummaryChunk> rows = new ArrayList<>(chunks.size());
+                for (int i = 0; i < chunks.size(); i++) {
+                    ChunkedSummary.Chunk chunk = chunks.get(i);
+                    rows.add(new AiSummaryChunk(null, note, i, chunk.getChunkHash(), generatorVersion,
+                            chunk.getSummaryText()));
+                }
+                aiSummaryChunkRepository.saveAll(rows);
+            }
+            
+            AiSummary saved = aiSummaryRepository.save(aiSummary);
+            secondLevelCache.evictAfterCommit(AiSummary.class, saved.getId());
+            eventPublisher.publishEvent(new SummaryStoredEvent(note.getUser().getId(), noteId, summaryText));
+            return toResponse(saved);
+        });
+    }
+    
+    /**
+     * Record that a note's stored summary is still valid for a newer version of
+     * the note, e.g. after an update that did not change its title or content
+     */
+    public void markSummaryCurrent(Long noteId, Timestamp sourceUpdatedAt) {
+        transactionTemplate.executeWithoutResult(status ->
+                aiSummaryRepository.findByNoteId(noteId).ifPresent(aiSummary -> {
+                    aiSummary.setSourceUpdatedAt(sourceUpdatedAt);
+                    aiSummary.setStale(false);
+                    secondLevelCache.evictAfterCommit(AiSummary.class, aiSummary.getId());
+                }));
+    }
+    
+    private SummaryResponse toResponse(AiSummary aiSummary) {
+        return new SummaryResponse(
+                aiSummary.getSummaryText(),
+                aiSummary.getModelUsed(),
+                aiSummary.getCreatedAt()
+        );
     }
 }
@@ -4,12 +4,19 @@ import com.aiplannotes.dto.LoginRequest;
 import com.aiplannotes.dto.LoginResponse;
 import com.aiplannotes.dto.RegisterRequest;
 import com.aiplannotes.dto.RegisterResponse;
+import com.aiplannotes.dto.UpdateTimeZoneRequest;
 import com.aiplannotes.entity.User;
+import com.aiplannotes.event.TokensRevokedEvent;
+import com.aiplannotes.event.UserTimeZoneChangedEvent;
 import com.aiplannotes.exception.BusinessException;
 import com.aiplannotes.repository.UserRepository;
+import com.aiplannotes.security.AuthenticatedUser;
 import com.aiplannotes.util.JwtUtil;
+import com.aiplannotes.util.SecurityUtils;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -18,6 +25,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 @Service
+@Timed("service.calls")
 public class AuthService {
 
     @Autowired
@@ -32,6 +40,9 @@ public class AuthService {
     @Autowired
     private AuthenticationManager authenticationManager;
 
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
     @Value("${jwt.expiration}")
     private Long jwtExpiration;
 
@@ -52,13 +63,17 @@ public class AuthService {
         user.setUsername(request.getUsername());
         user.setPasswordHash(passwordEncoder.encode(request.getPassword()));
         user.setEmail(request.getEmail());
+        if (request.getTimeZone() != null) {
+            user.setTimeZone(UserCalendar.parseZone(request.getTimeZone()));
+        }
 
         User savedUser = userRepository.save(user);
 
         return new RegisterResponse(
                 savedUser.getId(),
                 savedUser.getUsername(),
-                savedUser.getEmail()
+                savedUser.getEmail(),
+                savedUser.getTimeZone()
         );
     }
 
@@ -71,8 +86,16 @@ public class AuthService {
                 )
         );
 
-        // Generate JWT token
-        String token = jwtUtil.generateToken(request.getUsername());
+        // Generate JWT token carrying the user ID and current token version. The version is read
+        // from the database: this node's snapshot can predate a revocation made on another node
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+        Integer tokenVersion = userRepository.findTokenVersionById(principal.getId())
+                .orElseThrow(() -> new BusinessException(401, "Unauthorized"));
+        String token = jwtUtil.generateToken(
+                principal.getUsername(),
+                principal.getId(),
+                tokenVersion
+        );
 
         return new LoginResponse(
                 token,
@@ -80,4 +103,31 @@ public class AuthService {
                 jwtExpiration / 1000 // Convert to seconds
         );
     }
+
+    /**
+     * Change the time zone the current user's review dates are computed in.
+     * Already scheduled dates are kept as calendar dates.
+     */
+    @Transactional
+    public void updateTimeZone(UpdateTimeZoneRequest request) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BusinessException(401, "Unauthorized"));
+        user.setTimeZone(UserCalendar.parseZone(request.getTimeZone()));
+        userRepository.save(user);
+        // Cached zones and task lists are dropped after commit, so a concurrent request cannot re-cache the old zone
+        eventPublisher.publishEvent(new UserTimeZoneChangedEvent(userId));
+    }
+
+    /**
+     * Revoke every token previously issued to the current user
+     */
+    @Transactional
+    public void revokeTokens() {
+        Long userId = SecurityUtils.getCurrentUserId();
+        userRepository.incrementTokenVersion(userId);
+        // The registry is updated after commit, so a rolled back revocation is never applied
+        userRepository.findTokenVersionById(userId)
+                .ifPresent(version -> eventPublisher.publishEvent(new TokensRevokedEvent(userId, version)));
+    }
 }
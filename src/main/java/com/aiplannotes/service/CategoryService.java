@@ -1,15 +1,19 @@
 package com.aiplannotes.service;
 
+import com.aiplannotes.config.SecondLevelCache;
 import com.aiplannotes.dto.CategoryResponse;
 import com.aiplannotes.dto.CreateCategoryRequest;
 import com.aiplannotes.dto.UpdateCategoryRequest;
 import com.aiplannotes.entity.Category;
 import com.aiplannotes.entity.User;
+import com.aiplannotes.event.CategoryRenamedEvent;
 import com.aiplannotes.exception.BusinessException;
 import com.aiplannotes.repository.CategoryRepository;
 import com.aiplannotes.repository.NoteRepository;
 import com.aiplannotes.util.SecurityUtils;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -17,6 +21,7 @@ import java.util.List;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 public class CategoryService {
     
     @Autowired
@@ -25,6 +30,12 @@ public class CategoryService {
     @Autowired
     private NoteRepository noteRepository;
     
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
     @Transactional
     public CategoryResponse createCategory(CreateCategoryRequest request) {
         Long userId = SecurityUtils.getCurrentUserId();
@@ -69,6 +80,8 @@ public class CategoryService {
         
         category.setName(request.getName());
         Category updatedCategory = categoryRepository.save(category);
+        secondLevelCache.evictAfterCommit(Category.class, id);
+        eventPublisher.publishEvent(new CategoryRenamedEvent(userId, id));
         
         return new CategoryResponse(
                 updatedCategory.getId(),
@@ -90,5 +103,6 @@ public class CategoryService {
         }
         
         categoryRepository.delete(category);
+        secondLevelCache.evictAfterCommit(Category.class, id);
     }
 }
@@ -0,0 +1,105 @@
+package com.aiplannotes.service;
+
+import com.aiplannotes.entity.JobCheckpoint;
+import com.aiplannotes.repository.JobCheckpointRepository;
+import com.aiplannotes.repository.PendingReviewRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The number of reviews due today or overdue across all users, published as
+ * the {@code reviews.due.backlog} gauge. It is counted on a schedule rather
+ * than on every scrape, with "today" taken in each user's own time zone.
+ * <p>
+ * Only one node counts per interval: it claims the {@value #JOB_NAME} row in
+ * job_checkpoints and stores the count there. Every node publishes the stored
+ * count, so all instances report the same value.
+ */
+@Component
+public class DueReviewBacklog {
+
+    static final String JOB_NAME = "due-review-backlog";
+
+    // Every zone's current date lies between the dates at these offsets
+    private static final ZoneOffset EARLIEST_OFFSET = ZoneOffset.ofHours(-12);
+
+    private static final ZoneOffset LATEST_OFFSET = ZoneOffset.ofHours(14);
+
+    @Autowired
+    private PendingReviewRepository pendingReviewRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private Clock clock;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${tasks.due-backlog.refresh-interval:60000}")
+    private long refreshInterval;
+
+    private final AtomicLong backlog = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        Gauge.builder("reviews.due.backlog", backlog, AtomicLong::get)
+                .description("Reviews due today or overdue across all users")
+                .register(meterRegistry);
+    }
+
+    @Transactional
+    @Scheduled(initialDelay = 0, fixedDelayString = "${tasks.due-backlog.refresh-interval:60000}")
+    public void refresh() {
+        Instant now = clock.instant();
+        // Half an interval of slack so node schedules drifting apart still leave one recount per interval
+        Timestamp staleBefore = Timestamp.from(now.minusMillis(refreshInterval / 2));
+        if (jobCheckpointRepository.claim(JOB_NAME, staleBefore, Timestamp.from(now)) == 1) {
+            recount();
+        } else {
+            jobCheckpointRepository.findById(JOB_NAME).ifPresent(checkpoint -> backlog.set(checkpoint.getLastId()));
+        }
+    }
+
+    /**
+     * Count the backlog now, whichever node holds the refresh, and store it for the other nodes
+     */
+    @Transactional
+    public void recount() {
+        LocalDate earliest = LocalDate.now(clock.withZone(EARLIEST_OFFSET));
+        LocalDate latest = LocalDate.now(clock.withZone(LATEST_OFFSET));
+
+        long due = pendingReviewRepository.countByScheduledForBefore(earliest);
+        Map<String, LocalDate> todayByZone = new HashMap<>();
+        for (Object[] row : pendingReviewRepository.countByTimeZoneAndDate(earliest, latest)) {
+            LocalDate today = todayByZone.computeIfAbsent((String) row[0],
+                    zone -> LocalDate.now(clock.withZone(ZoneId.of(zone))));
+            if (!((LocalDate) row[1]).isAfter(today)) {
+                due += (Long) row[2];
+            }
+        }
+        backlog.set(due);
+
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                .orElseGet(() -> new JobCheckpoint(JOB_NAME, 0L, null));
+        checkpoint.setLastId(due);
+        jobCheckpointRepository.save(checkpoint);
+    }
+}
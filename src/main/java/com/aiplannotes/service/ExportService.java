@@ -0,0 +1,162 @@
+package com.aiplannotes.service;
+
+import com.aiplannotes.dto.ExportEnd;
+import com.aiplannotes.dto.ExportHeader;
+import com.aiplannotes.dto.ExportRecord;
+import com.aiplannotes.entity.User;
+import com.aiplannotes.exception.BusinessException;
+import com.aiplannotes.repository.ExportRepository;
+import com.aiplannotes.repository.UserRepository;
+import com.aiplannotes.util.SecurityUtils;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.annotation.Timed;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Locale;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+/**
+ * Full export of a user's categories, notes, AI summaries and review history
+ * as NDJSON (one {@link ExportRecord} per line), optionally zipped. Rows are
+ * serialised as they come off the database cursor, so an export of any size
+ * needs the same small amount of memory.
+ */
+@Slf4j
+@Service
+@Timed("service.calls")
+public class ExportService {
+
+    public static final int FORMAT_VERSION = 1;
+
+    @Autowired
+    private ExportRepository exportRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserCalendar userCalendar;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    @Autowired
+    public void setTransactionManager(PlatformTransactionManager transactionManager) {
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+    }
+
+    public enum Format {
+        NDJSON, ZIP
+    }
+
+    /**
+     * Prepare the current user's export. Runs on the request thread, so the
+     * format is validated and the user resolved before the response starts;
+     * the body is written later on an async thread.
+     * @param format "ndjson" (default) or "zip"
+     */
+    public Export export(String format) {
+        Format exportFormat = parseFormat(format);
+        Long userId = SecurityUtils.getCurrentUserId();
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new BusinessException(404, "User not found"));
+        ExportHeader header = new ExportHeader(FORMAT_VERSION, user.getUsername(), user.getTimeZone(), userCalendar.now());
+
+        String baseName = "ai-plan-notes-" + user.getUsername() + "-" + userCalendar.today(userId);
+        StreamingResponseBody body = out -> {
+            long startedAt = System.nanoTime();
+            ExportEnd end = write(userId, header, exportFormat, out);
+            log.info("Exported {} notes for user {} in {} ms",
+                    end.getNotes(), userId, (System.nanoTime() - startedAt) / 1_000_000);
+        };
+        return exportFormat == Format.ZIP
+                ? new Export(baseName + ".zip", MediaType.parseMediaType("application/zip"), body)
+                : new Export(baseName + ".ndjson", MediaType.APPLICATION_NDJSON, body);
+    }
+
+    /**
+     * Write one user's export to a stream, all of it read in one read-only
+     * transaction so it is a consistent snapshot
+     * @return the end record with the counts
+     */
+    public ExportEnd write(Long userId, ExportHeader header, Format format, OutputStream out) throws IOException {
+        if (format == Format.ZIP) {
+            ZipOutputStream zip = new ZipOutputStream(out);
+            zip.putNextEntry(new ZipEntry("notes.ndjson"));
+            ExportEnd end = writeNdjson(userId, header, zip);
+            zip.closeEntry();
+            zip.finish();
+            return end;
+        }
+        return writeNdjson(userId, header, out);
+    }
+
+    private ExportEnd writeNdjson(Long userId, ExportHeader header, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ExportRecord.class)
+                // The servlet stream flushes whenever its buffer fills; not once per line
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE)
+                .withRootValueSeparator("\n");
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)
+                .disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET)) {
+            try {
+                writer.writeValue(generator, header);
+                ExportEnd end = readOnlyTransaction.execute(status -> new ExportEnd(
+                        exportRepository.forEachCategory(userId, record -> writeLine(writer, generator, record)),
+                        exportRepository.forEachNote(userId, record -> writeLine(writer, generator, record)),
+                        exportRepository.forEachReview(userId, record -> writeLine(writer, generator, record))));
+                writer.writeValue(generator, end);
+                generator.writeRaw('\n');
+                return end;
+            } catch (UncheckedIOException e) {
+                // The client went away; the cursor and transaction are already closed
+                throw e.getCause();
+            }
+        }
+    }
+
+    private static void writeLine(ObjectWriter writer, JsonGenerator generator, ExportRecord record) {
+        try {
+            writer.writeValue(generator, record);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Format parseFormat(String format) {
+        if (format == null || format.isBlank()) {
+            return Format.NDJSON;
+        }
+        try {
+            return Format.valueOf(format.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new BusinessException(400, "Unsupported export format: " + format);
+        }
+    }
+
+    /**
+     * A prepared export: the file name, its content type and the body writer
+     */
+    @Value
+    public static class Export {
+        String fileName;
+        MediaType contentType;
+        StreamingResponseBody body;
+    }
+}
@@ -0,0 +1,316 @@
+package com.aiplannotes.service;
+
+import com.aiplannotes.dto.ImportJobResponse;
+import com.aiplannotes.entity.Category;
+import com.aiplannotes.entity.JobCheckpoint;
+import com.aiplannotes.entity.Note;
+import com.aiplannotes.entity.PendingReview;
+import com.aiplannotes.entity.User;
+import com.aiplannotes.event.NoteCreatedEvent;
+import com.aiplannotes.event.NotesImportedEvent;
+import com.aiplannotes.exception.BusinessException;
+import com.aiplannotes.importer.ImportFormat;
+import com.aiplannotes.importer.ImportJob;
+import com.aiplannotes.importer.ImportedNote;
+import com.aiplannotes.importer.NoteReader;
+import com.aiplannotes.repository.CategoryRepository;
+import com.aiplannotes.repository.JobCheckpointRepository;
+import com.aiplannotes.util.SecurityUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.annotation.Timed;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk import of notes from an upload. The upload is parsed as it arrives
+ * and committed in batches: one transaction per batch, categories resolved
+ * through a name-to-id map loaded once and extended as new names appear, and
+ * notes with their first pending review sent as JDBC batches. Each batch
+ * advances the job's checkpoint in the same transaction, so an interrupted
+ * upload can be sent again and continues after the last committed record.
+ */
+@Slf4j
+@Service
+@Timed("service.calls")
+public class ImportService {
+
+    private static final String CHECKPOINT_PREFIX = "import:";
+
+    private static final int MAX_TITLE_LENGTH = 255;
+
+    private static final int MAX_CATEGORY_NAME_LENGTH = 100;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @Autowired
+    private UserCalendar userCalendar;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Value("${import.batch-size:500}")
+    private int batchSize;
+
+    @Value("${import.job-retention:1h}")
+    private Duration jobRetention;
+
+    @Value("${import.checkpoint-retention:7d}")
+    private Duration checkpointRetention;
+
+    private Cache<String, ImportJob> jobs;
+
+    @PostConstruct
+    void init() {
+        jobs = Caffeine.newBuilder()
+                .maximumSize(10_000)
+                .expireAfterAccess(jobRetention)
+                .build();
+    }
+
+    /**
+     * Start a job for the current user. The upload follows in {@link #importNotes}.
+     */
+    @Transactional
+    public ImportJobResponse createJob() {
+        Long userId = SecurityUtils.getCurrentUserId();
+        // Uploads that were never resumed
+        jobCheckpointRepository.deleteStale(CHECKPOINT_PREFIX,
+                Timestamp.from(Instant.now().minus(checkpointRetention)));
+
+        ImportJob job = new ImportJob(userId);
+        jobCheckpointRepository.save(new JobCheckpoint(checkpointName(userId, job.getId()), 0L, null));
+        jobs.put(job.getId(), job);
+        return ImportJobResponse.from(job);
+    }
+
+    public ImportJobResponse getJob(String jobId) {
+        return ImportJobResponse.from(findJob(SecurityUtils.getCurrentUserId(), jobId));
+    }
+
+    /**
+     * Import an upload into a job, or continue a failed one where it stopped.
+     * Runs on the request thread while the upload is read.
+     * @param format "markdown", "anki" or "ndjson"
+     * @param defaultCategory category name for notes whose format carries none, created if needed
+     */
+    public ImportJobResponse importNotes(String jobId, String format, String defaultCategory, InputStream upload) {
+        ImportFormat importFormat = ImportFormat.parse(format);
+        Long userId = SecurityUtils.getCurrentUserId();
+        ImportJob job = findJob(userId, jobId);
+        if (!job.start()) {
+            throw new BusinessException(409, "Conflict: Import job is already running or has finished.");
+        }
+
+        String checkpointName = checkpointName(userId, jobId);
+        long startedAt = System.nanoTime();
+        try {
+            long resumeFrom = jobCheckpointRepository.findById(checkpointName)
+                    .map(JobCheckpoint::getLastId)
+                    .orElseThrow(() -> new BusinessException(404, "Import job not found"));
+            NoteReader reader = NoteReader.open(importFormat, upload, blankToNull(defaultCategory), objectMapper);
+            run(job, userId, checkpointName, resumeFrom, reader);
+
+            jobCheckpointRepository.deleteById(checkpointName);
+            job.complete();
+            log.info("Import job {} imported {} notes for user {} in {} ms", jobId, job.getNotesImported(), userId,
+                    (System.nanoTime() - startedAt) / 1_000_000);
+            return ImportJobResponse.from(job);
+        } catch (IOException e) {
+            job.fail("Upload interrupted after " + job.getRecordsProcessed()
+                    + " records; upload the same file again to resume.");
+            throw new BusinessException(400, job.getError());
+        } catch (BusinessException e) {
+            job.fail(e.getMessage());
+            throw e;
+        } catch (RuntimeException e) {
+            log.warn("Import job {} failed after {} records", jobId, job.getRecordsProcessed(), e);
+            job.fail("Import failed after " + job.getRecordsProcessed()
+                    + " records; upload the same file again to resume.");
+            throw e;
+        }
+    }
+
+    private void run(ImportJob job, Long userId, String checkpointName, long resumeFrom, NoteReader reader)
+            throws IOException {
+        // Records before the checkpoint were committed by an earlier upload
+        for (long skipped = 0; skipped < resumeFrom; skipped++) {
+            if (reader.next() == null) {
+                return;
+            }
+        }
+
+        Map<String, Long> categoryIds = new HashMap<>();
+        for (Category category : categoryRepository.findByUserId(userId)) {
+            categoryIds.putIfAbsent(category.getName(), category.getId());
+        }
+
+        long position = resumeFrom;
+        List<ImportedNote> batch = new ArrayList<>(batchSize);
+        ImportedNote record;
+        while ((record = reader.next()) != null) {
+            batch.add(record);
+            if (batch.size() == batchSize) {
+                position = importBatch(job, userId, checkpointName, position, batch, categoryIds);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            importBatch(job, userId, checkpointName, position, batch, categoryIds);
+        }
+    }
+
+    /**
+     * Insert one batch and advance the checkpoint past it in one transaction
+     * @return the checkpoint after the batch
+     */
+    private long importBatch(ImportJob job, Long userId, String checkpointName, long position,
+                             List<ImportedNote> batch, Map<String, Long> categoryIds) {
+        LocalDate today = userCalendar.today(userId);
+        Map<String, Long> createdCategories = new HashMap<>();
+        List<String> skipped = new ArrayList<>();
+
+        List<NoteCreatedEvent> imported = transactionTemplate.execute(status -> {
+            // One JDBC batch per table for the whole import batch
+            entityManager.unwrap(Session.class).setJdbcBatchSize(batchSize);
+            User user = entityManager.getReference(User.class, userId);
+
+            List<NoteCreatedEvent> notes = new ArrayList<>(batch.size());
+            for (ImportedNote record : batch) {
+                String error = validate(record);
+                if (error != null) {
+                    skipped.add("Line " + record.getLine() + ": " + error);
+                    continue;
+                }
+
+                String categoryName = blankToNull(record.getCategoryName());
+                Long categoryId = null;
+                if (categoryName != null) {
+                    categoryId = categoryIds.get(categoryName);
+                    if (categoryId == null) {
+                        categoryId = createdCategories.computeIfAbsent(categoryName, name -> createCategory(user, name));
+                    }
+                }
+
+                Note note = new Note();
+                note.setUser(user);
+                note.setCategory(categoryId != null ? entityManager.getReference(Category.class, categoryId) : null);
+                note.setTitle(record.getTitle().strip());
+                note.setContent(record.getContent());
+                note.setIsSupervised(record.isSupervised());
+                note.setSupervisionDurationSeconds(record.getSupervisionDurationSeconds());
+                entityManager.persist(note);
+
+                PendingReview review = new PendingReview();
+                review.setNote(note);
+                review.setUser(user);
+                review.setStageNumber(record.getStageNumber() != null ? Math.max(1, record.getStageNumber()) : 1);
+                review.setScheduledFor(record.getScheduledFor() != null ? record.getScheduledFor() : today);
+                entityManager.persist(review);
+
+                notes.add(new NoteCreatedEvent(userId, note.getId(), note.getTitle(), note.getContent(), categoryName,
+                        note.getIsSupervised(), note.getSupervisionDurationSeconds(), review.getScheduledFor()));
+            }
+
+            if (jobCheckpointRepository.advance(checkpointName, position, position + batch.size()) == 0) {
+                throw new BusinessException(409, "Conflict: Import job was continued by another upload.");
+            }
+            // Send the batch now and keep the persistence context small
+            entityManager.flush();
+            entityManager.clear();
+            eventPublisher.publishEvent(new NotesImportedEvent(userId, notes));
+            return notes;
+        });
+
+        categoryIds.putAll(createdCategories);
+        job.batchCommitted(batch.size(), imported.size(), createdCategories.size(), skipped);
+        return position + batch.size();
+    }
+
+    private Long createCategory(User user, String name) {
+        Category category = new Category();
+        category.setUser(user);
+        category.setName(name);
+        entityManager.persist(category);
+        return category.getId();
+    }
+
+    /**
+     * @return why the record cannot be imported, or null if it can
+     */
+    private static String validate(ImportedNote record) {
+        if (!record.isValid()) {
+            return record.getError();
+        }
+        if (record.getTitle() == null || record.getTitle().isBlank()) {
+            return "Note title cannot be empty";
+        }
+        if (record.getTitle().strip().length() > MAX_TITLE_LENGTH) {
+            return "Note title must be between 1 and 255 characters";
+        }
+        if (record.getContent() == null || record.getContent().isBlank()) {
+            return "Note content cannot be empty";
+        }
+        String categoryName = blankToNull(record.getCategoryName());
+        if (categoryName != null && categoryName.length() > MAX_CATEGORY_NAME_LENGTH) {
+            return "Category name must not exceed 100 characters";
+        }
+        return null;
+    }
+
+    private ImportJob findJob(Long userId, String jobId) {
+        ImportJob job = jobs.getIfPresent(jobId);
+        if (job != null) {
+            if (!job.getUserId().equals(userId)) {
+                throw new BusinessException(404, "Import job not found");
+            }
+            return job;
+        }
+        // Created on another node or before a restart; only the resume point is known
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById(checkpointName(userId, jobId))
+                .orElseThrow(() -> new BusinessException(404, "Import job not found"));
+        return jobs.get(jobId, id -> new ImportJob(id, userId, checkpoint.getLastId()));
+    }
+
+    private static String checkpointName(Long userId, String jobId) {
+        return CHECKPOINT_PREFIX + userId + ":" + jobId;
+    }
+
+    private static String blankToNull(String value) {
+        return value == null || value.isBlank() ? null : value.strip();
+    }
+}
@@ -0,0 +1,94 @@
+package com.aiplannotes.service;
+
+import com.aiplannotes.dto.NoteSearchHit;
+import com.aiplannotes.dto.NoteSearchResponse;
+import com.aiplannotes.dto.NoteSearchSource;
+import com.aiplannotes.exception.BusinessException;
+import com.aiplannotes.repository.NoteRepository;
+import com.aiplannotes.search.Highlighter;
+import com.aiplannotes.search.InvertedIndex;
+import com.aiplannotes.search.NoteSearchIndex;
+import com.aiplannotes.util.SecurityUtils;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+@Timed("service.calls")
+public class NoteSearchService {
+    
+    private static final int MAX_QUERY_LENGTH = 200;
+    
+    @Autowired
+    private NoteSearchIndex noteSearchIndex;
+    
+    @Autowired
+    private NoteRepository noteRepository;
+    
+    @Value("${search.page.default-size:20}")
+    private int defaultPageSize;
+    
+    @Value("${search.page.max-size:100}")
+    private int maxPageSize;
+    
+    @Value("${search.snippet-length:160}")
+    private int snippetLength;
+    
+    /**
+     * Full-text search over the current user's note titles and contents,
+     * best BM25 matches first
+     * @param query search text; CJK text is matched by character bigrams
+     * @param limit requested page size, capped at the configured maximum
+     * @param offset number of top hits to skip
+     */
+    public NoteSearchResponse search(String query, Integer limit, Integer offset) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        
+        if (query == null || query.isBlank()) {
+            throw new BusinessException(400, "Invalid request: q must not be empty");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new BusinessException(400, "Invalid request: q must not exceed " + MAX_QUERY_LENGTH + " characters");
+        }
+        int pageSize = limit == null ? defaultPageSize : limit;
+        int skip = offset == null ? 0 : offset;
+        if (pageSize < 1 || skip < 0) {
+            throw new BusinessException(400, "Invalid request: limit must be positive and offset not negative");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        
+        InvertedIndex.Result result = noteSearchIndex.search(userId, query, skip, pageSize);
+        if (result.getHits().isEmpty()) {
+            return new NoteSearchResponse(List.of(), result.getTotalHits());
+        }
+        
+        // Only the returned page is read back, for highlighting
+        List<Long> noteIds = result.getHits().stream().map(InvertedIndex.Hit::getNoteId).toList();
+        Map<Long, NoteSearchSource> notes = noteRepository.findSearchSources(noteIds, userId).stream()
+                .collect(Collectors.toMap(NoteSearchSource::getNoteId, Function.identity()));
+        
+        List<NoteSearchHit> items = new ArrayList<>(noteIds.size());
+        for (InvertedIndex.Hit hit : result.getHits()) {
+            NoteSearchSource note = notes.get(hit.getNoteId());
+            if (note == null) {
+                // Deleted since it was ranked
+                continue;
+            }
+            items.add(new NoteSearchHit(
+                    note.getNoteId(),
+                    Highlighter.highlight(note.getTitle(), result.getTerms()),
+                    Highlighter.snippet(note.getContent(), result.getTerms(), snippetLength),
+                    hit.getScore()
+            ));
+        }
+        
+        return new NoteSearchResponse(items, result.getTotalHits());
+    }
+}
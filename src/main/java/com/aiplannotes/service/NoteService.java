@@ -1,19 +1,28 @@
 package com.aiplannotes.service;
 
+import com.aiplannotes.ai.TextChunker;
+import com.aiplannotes.config.SecondLevelCache;
 import com.aiplannotes.dto.*;
 import com.aiplannotes.entity.*;
+import com.aiplannotes.event.NoteContentChangedEvent;
+import com.aiplannotes.event.NoteCreatedEvent;
+import com.aiplannotes.event.NoteDeletedEvent;
+import com.aiplannotes.event.NoteUpdatedEvent;
 import com.aiplannotes.exception.BusinessException;
 import com.aiplannotes.repository.*;
+import com.aiplannotes.util.KeysetCursor;
 import com.aiplannotes.util.SecurityUtils;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDate;
 import java.util.List;
-import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 public class NoteService {
     
     @Autowired
@@ -23,11 +32,26 @@ public class NoteService {
     private CategoryRepository categoryRepository;
     
     @Autowired
-    private ReviewRecordRepository reviewRecordRepository;
+    private PendingReviewRepository pendingReviewRepository;
     
     @Autowired
     private AiSummaryRepository aiSummaryRepository;
     
+    @Autowired
+    private SecondLevelCache secondLevelCache;
+    
+    @Autowired
+    private UserCalendar userCalendar;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+    
+    @Value("${notes.page.default-size:50}")
+    private int defaultPageSize;
+    
+    @Value("${notes.page.max-size:200}")
+    private int maxPageSize;
+    
     @Transactional
     public NoteDetailResponse createNote(CreateNoteRequest request) {
         Long userId = SecurityUtils.getCurrentUserId();
@@ -43,20 +67,25 @@ public class NoteService {
         note.setSupervisionDurationSeconds(request.getSupervisionDurationSeconds());
         
         // Validate and set category if provided
+        Category category = null;
         if (request.getCategoryId() != null) {
-            Category category = categoryRepository.findByIdAndUserId(request.getCategoryId(), userId)
+            category = categoryRepository.findByIdAndUserId(request.getCategoryId(), userId)
                     .orElseThrow(() -> new BusinessException(404, "Category not found"));
             note.setCategory(category);
         }
         
         Note savedNote = noteRepository.save(note);
         
-        // Create the first review record (stage 1, scheduled for today)
-        ReviewRecord firstReview = new ReviewRecord();
+        // Schedule the first review (stage 1, due today in the user's time zone)
+        PendingReview firstReview = new PendingReview();
         firstReview.setNote(savedNote);
+        firstReview.setUser(user);
         firstReview.setStageNumber(1);
-        firstReview.setScheduledFor(LocalDate.now());
-        reviewRecordRepository.save(firstReview);
+        firstReview.setScheduledFor(userCalendar.today(userId));
+        pendingReviewRepository.save(firstReview);
+        eventPublisher.publishEvent(new NoteCreatedEvent(userId, savedNote.getId(), savedNote.getTitle(), savedNote.getContent(),
+                category != null ? category.getName() : null, savedNote.getIsSupervised(),
+                savedNote.getSupervisionDurationSeconds(), firstReview.getScheduledFor()));
         
         // Build response
         NoteDetailResponse response = new NoteDetailResponse();
@@ -96,13 +125,14 @@ public class NoteService {
         aiSummaryRepository.findByNoteId(id).ifPresent(summary -> {
             AiSummaryDto summaryDto = new AiSummaryDto(
                     summary.getSummaryText(),
-                    summary.getCreatedAt()
+                    summary.getCreatedAt(),
+                    summary.getStale()
             );
             response.setAiSummary(summaryDto);
         });
         
-        // Set current review record (first unreviewed)
-        reviewRecordRepository.findFirstByNoteIdAndReviewedAtIsNullOrderByScheduledForAsc(id)
+        // Set current review record
+        pendingReviewRepository.findById(id)
                 .ifPresent(record -> {
                     ReviewRecordDto recordDto = new ReviewRecordDto(
                             record.getStageNumber(),
@@ -121,6 +151,9 @@ public class NoteService {
         Note note = noteRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new BusinessException(404, "Note not found"));
         
+        boolean titleChanged = !note.getTitle().equals(request.getTitle());
+        boolean contentChanged = TextChunker.paragraphsChanged(note.getContent(), request.getContent());
+        
         note.setTitle(request.getTitle());
         note.setContent(request.getContent());
         note.setIsSupervised(request.getIsSupervised());
@@ -136,6 +169,19 @@ public class NoteService {
         }
         
         Note updatedNote = noteRepository.save(note);
+        eventPublisher.publishEvent(new NoteUpdatedEvent(userId, id, updatedNote.getTitle(), updatedNote.getContent(),
+                updatedNote.getCategory() != null ? updatedNote.getCategory().getName() : null,
+                updatedNote.getIsSupervised(), updatedNote.getSupervisionDurationSeconds()));
+        
+        // A text change makes the summary stale; it is regenerated after commit,
+        // resummarising only the changed chunks
+        if (titleChanged || contentChanged) {
+            aiSummaryRepository.findByNoteId(id).ifPresent(summary -> {
+                summary.setStale(true);
+                secondLevelCache.evictAfterCommit(AiSummary.class, summary.getId());
+                eventPublisher.publishEvent(new NoteContentChangedEvent(userId, id));
+            });
+        }
         
         NoteDetailResponse response = new NoteDetailResponse();
         response.setId(updatedNote.getId());
@@ -156,39 +202,58 @@ public class NoteService {
         Note note = noteRepository.findByIdAndUserId(id, userId)
                 .orElseThrow(() -> new BusinessException(404, "Note not found"));
         
-        // Cascade delete will handle AI summaries and review records
+        // The summary is removed through its repository so its cache entry goes with it;
+        // cascade delete handles review records
+        aiSummaryRepository.findByNoteId(id).ifPresent(aiSummaryRepository::delete);
         noteRepository.delete(note);
+        eventPublisher.publishEvent(new NoteDeletedEvent(userId, id));
     }
     
-    public List<NoteListItemResponse> getNotesByCategory(Long categoryId) {
+    /**
+     * List one page of a category's notes using keyset pagination on (createdAt, id)
+     * @param categoryId category filter; null or 0 selects uncategorized notes
+     * @param cursor continuation token from the previous page, or null for the first page
+     * @param limit requested page size, capped at the configured maximum
+     * @param sort "newest" (default) or "oldest"
+     * @param includeTotal whether to run the extra count query
+     */
+    public NoteListPage getNotesByCategory(Long categoryId, String cursor, Integer limit, String sort,
+                                           boolean includeTotal) {
         Long userId = SecurityUtils.getCurrentUserId();
         
-        List<Note> notes;
-        if (categoryId == null || categoryId == 0) {
-            notes = noteRepository.findByUserIdAndCategoryIsNull(userId);
+        int pageSize = limit == null ? defaultPageSize : limit;
+        if (pageSize < 1) {
+            throw new BusinessException(400, "Invalid request: limit must be positive");
+        }
+        pageSize = Math.min(pageSize, maxPageSize);
+        
+        NoteListQuery.Sort order;
+        if (sort == null || sort.equalsIgnoreCase("newest")) {
+            order = NoteListQuery.Sort.NEWEST;
+        } else if (sort.equalsIgnoreCase("oldest")) {
+            order = NoteListQuery.Sort.OLDEST;
         } else {
-            notes = noteRepository.findByUserIdAndCategoryId(userId, categoryId);
+            throw new BusinessException(400, "Invalid request: sort must be newest or oldest");
         }
         
-        return notes.stream()
-                .map(note -> {
-                    String aiSummaryPreview = null;
-                    var summaryOpt = aiSummaryRepository.findByNoteId(note.getId());
-                    if (summaryOpt.isPresent()) {
-                        String text = summaryOpt.get().getSummaryText();
-                        if (text != null) {
-                            aiSummaryPreview = text.length() > 100 ? text.substring(0, 100) + "..." : text;
-                        }
-                    }
-                    
-                    return new NoteListItemResponse(
-                            note.getId(),
-                            note.getTitle(),
-                            note.getIsSupervised(),
-                            aiSummaryPreview,
-                            note.getCreatedAt()
-                    );
-                })
-                .collect(Collectors.toList());
+        KeysetCursor after = cursor != null && !cursor.isEmpty() ? KeysetCursor.decode(cursor, order.getKey()) : null;
+        
+        // Fetch one extra row to find out whether another page exists
+        NoteListQuery query = new NoteListQuery(userId, categoryId, order,
+                after != null ? after.getCreatedAt() : null,
+                after != null ? after.getId() : null,
+                pageSize + 1);
+        List<NoteListItemResponse> items = noteRepository.findListItems(query);
+        
+        String nextCursor = null;
+        if (items.size() > pageSize) {
+            items = items.subList(0, pageSize);
+            NoteListItemResponse last = items.get(pageSize - 1);
+            nextCursor = new KeysetCursor(order.getKey(), last.getCreatedAt(), last.getId()).encode();
+        }
+        
+        Long totalCount = includeTotal ? noteRepository.countListItems(query) : null;
+        
+        return new NoteListPage(items, nextCursor, totalCount);
     }
 }
@@ -1,82 +1,151 @@
 package com.aiplannotes.service;
 
+import com.aiplannotes.dto.SubmitReviewItemResult;
 import com.aiplannotes.dto.SubmitReviewRequest;
 import com.aiplannotes.dto.SubmitReviewResponse;
 import com.aiplannotes.dto.TodayTaskResponse;
+import com.aiplannotes.entity.PendingReview;
 import com.aiplannotes.entity.ReviewRecord;
+import com.aiplannotes.event.ReviewsSubmittedEvent;
 import com.aiplannotes.exception.BusinessException;
-import com.aiplannotes.repository.AiSummaryRepository;
+import com.aiplannotes.repository.PendingReviewRepository;
 import com.aiplannotes.repository.ReviewRecordRepository;
 import com.aiplannotes.util.SecurityUtils;
+import io.micrometer.core.annotation.Timed;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.sql.Timestamp;
 import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
+@Timed("service.calls")
 public class ReviewService {
     
     // Ebbinghaus forgetting curve intervals (in days)
     private static final int[] INTERVALS = {1, 2, 4, 7, 15, 30, 60, 120};
     
+    private static final String NO_PENDING_REVIEW = "Invalid task: No pending review found for this note.";
+    
     @Autowired
     private ReviewRecordRepository reviewRecordRepository;
     
     @Autowired
-    private AiSummaryRepository aiSummaryRepository;
+    private PendingReviewRepository pendingReviewRepository;
+    
+    @Autowired
+    private TodayTaskCache todayTaskCache;
+    
+    @Autowired
+    private UserCalendar userCalendar;
+    
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
     
+    /**
+     * Today's due tasks in the user's time zone, from the per-user cache when warm
+     */
     public List<TodayTaskResponse> getTodayTasks() {
         Long userId = SecurityUtils.getCurrentUserId();
-        LocalDate today = LocalDate.now();
+        ZoneId zone = userCalendar.zone(userId);
+        LocalDate today = userCalendar.today(userId);
         
-        List<ReviewRecord> records = reviewRecordRepository
-                .findByNoteUserIdAndScheduledForLessThanEqualAndReviewedAtIsNull(userId, today);
-        
-        return records.stream()
-                .map(record -> {
-                    var note = record.getNote();
-                    String categoryName = note.getCategory() != null ? note.getCategory().getName() : null;
-                    
-                    String aiSummary = aiSummaryRepository.findByNoteId(note.getId())
-                            .map(summary -> summary.getSummaryText())
-                            .orElse(null);
-                    
-                    return new TodayTaskResponse(
-                            note.getId(),
-                            note.getTitle(),
-                            categoryName,
-                            note.getIsSupervised(),
-                            note.getSupervisionDurationSeconds(),
-                            record.getStageNumber(),
-                            aiSummary
-                    );
-                })
-                .collect(Collectors.toList());
+        return todayTaskCache.get(userId, zone, today, id -> pendingReviewRepository.findTodayTasks(id, today));
     }
     
     @Transactional
     public SubmitReviewResponse submitReview(SubmitReviewRequest request) {
         Long userId = SecurityUtils.getCurrentUserId();
-        LocalDate today = LocalDate.now();
+        LocalDate today = userCalendar.today(userId);
+        
+        // Find and lock the due pending review
+        PendingReview pending = pendingReviewRepository
+                .findDueForUpdate(request.getNoteId(), userId, today)
+                .orElseThrow(() -> new BusinessException(400, NO_PENDING_REVIEW));
+        
+        ReviewRecord record = applyReview(pending, request, today, userCalendar.now());
+        reviewRecordRepository.save(record);
+        eventPublisher.publishEvent(new ReviewsSubmittedEvent(userId, List.of(request.getNoteId())));
+        
+        return new SubmitReviewResponse(pending.getScheduledFor());
+    }
+    
+    /**
+     * Submit several review results in one transaction. All due reviews are
+     * validated and locked with a single query; history rows are inserted and
+     * pending rows updated in JDBC batches. Invalid items are reported per item
+     * and do not affect the others.
+     */
+    @Transactional
+    public List<SubmitReviewItemResult> submitReviews(List<SubmitReviewRequest> requests) {
+        Long userId = SecurityUtils.getCurrentUserId();
+        LocalDate today = userCalendar.today(userId);
+        Timestamp now = userCalendar.now();
+        
+        Set<Long> noteIds = requests.stream()
+                .map(SubmitReviewRequest::getNoteId)
+                .collect(Collectors.toSet());
+        Map<Long, PendingReview> dueByNoteId = pendingReviewRepository
+                .findAllDueForUpdate(noteIds, userId, today).stream()
+                .collect(Collectors.toMap(PendingReview::getNoteId, Function.identity()));
+        
+        List<SubmitReviewItemResult> results = new ArrayList<>(requests.size());
+        List<ReviewRecord> records = new ArrayList<>(requests.size());
+        Set<Long> submitted = new HashSet<>();
         
-        // Step 1: Find and validate the review record
-        ReviewRecord currentRecord = reviewRecordRepository
-                .findByNoteIdAndNoteUserIdAndScheduledForLessThanEqualAndReviewedAtIsNull(
-                        request.getNoteId(), userId, today)
-                .orElseThrow(() -> new BusinessException(400, "Invalid task: No pending review found for this note."));
+        for (SubmitReviewRequest request : requests) {
+            Long noteId = request.getNoteId();
+            if (!submitted.add(noteId)) {
+                results.add(SubmitReviewItemResult.failure(noteId, "Invalid task: Duplicate note in batch."));
+                continue;
+            }
+            PendingReview pending = dueByNoteId.get(noteId);
+            if (pending == null) {
+                results.add(SubmitReviewItemResult.failure(noteId, NO_PENDING_REVIEW));
+                continue;
+            }
+            records.add(applyReview(pending, request, today, now));
+            results.add(SubmitReviewItemResult.success(noteId, pending.getScheduledFor()));
+        }
+        
+        reviewRecordRepository.saveAll(records);
+        if (!records.isEmpty()) {
+            eventPublisher.publishEvent(new ReviewsSubmittedEvent(userId,
+                    records.stream().map(record -> record.getNote().getId()).toList()));
+        }
         
-        // Step 2: Update the current record
-        currentRecord.setReviewedAt(new Timestamp(System.currentTimeMillis()));
-        currentRecord.setResult(request.getResultEnum());
-        currentRecord.setReviewDurationSeconds(request.getReviewDurationSeconds());
-        reviewRecordRepository.save(currentRecord);
+        return results;
+    }
+    
+    /**
+     * Record a completed review in the history log and advance the pending
+     * review to its next stage and due date
+     * @return the new (unsaved) history record
+     */
+    private ReviewRecord applyReview(PendingReview pending, SubmitReviewRequest request,
+                                     LocalDate today, Timestamp reviewedAt) {
+        // Append the completed review to the history log
+        ReviewRecord record = new ReviewRecord();
+        record.setNote(pending.getNote());
+        record.setUser(pending.getUser());
+        record.setStageNumber(pending.getStageNumber());
+        record.setScheduledFor(pending.getScheduledFor());
+        record.setReviewedAt(reviewedAt);
+        record.setResult(request.getResultEnum());
+        record.setReviewDurationSeconds(request.getReviewDurationSeconds());
         
-        // Step 3: Calculate next review information
-        int currentStage = currentRecord.getStageNumber();
+        // Calculate next review information
+        int currentStage = pending.getStageNumber();
         int newStageNumber;
         LocalDate nextReviewDate;
         
@@ -91,14 +160,11 @@ public class ReviewService {
             nextReviewDate = today.plusDays(1); // Review again tomorrow
         }
         
-        // Step 4: Create new review record
-        ReviewRecord newRecord = new ReviewRecord();
-        newRecord.setNote(currentRecord.getNote());
-        newRecord.setStageNumber(newStageNumber);
-        newRecord.setScheduledFor(nextReviewDate);
-        reviewRecordRepository.save(newRecord);
+        // Advance the pending review in place
+        pending.setStageNumber(newStageNumber);
+        pending.setScheduledFor(nextReviewDate);
         
-        return new SubmitReviewResponse(nextReviewDate);
+        return record;
     }
     
     /**
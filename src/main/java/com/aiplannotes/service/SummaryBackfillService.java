@@ -0,0 +1,215 @@
+package com.aiplannotes.service;
+
+import com.aiplannotes.ai.ChunkedSummary;
+import com.aiplannotes.ai.IncrementalSummarizer;
+import com.aiplannotes.ai.RateLimiter;
+import com.aiplannotes.ai.SummaryCache;
+import com.aiplannotes.ai.SummaryGateway;
+import com.aiplannotes.dto.SummaryBackfillCandidate;
+import com.aiplannotes.entity.JobCheckpoint;
+import com.aiplannotes.repository.AiSummaryRepository;
+import com.aiplannotes.repository.JobCheckpointRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Background backfill of AI summaries for notes that have none, or whose
+ * summary predates their last update. Notes are walked in ID order in
+ * keyset-paged chunks; after each chunk the last ID is checkpointed so a
+ * restarted application resumes where it stopped. When a pass reaches the
+ * end, the checkpoint is reset and the next run starts a new pass.
+ * <p>
+ * Generator calls are rate limited and run on a small fixed pool; they go
+ * through the content-addressed summary cache, so notes that only changed
+ * metadata, or share content with another note, cost no generation, and
+ * long notes only resummarise the chunks that changed.
+ */
+@Slf4j
+@Service
+public class SummaryBackfillService {
+    
+    static final String JOB_NAME = "summary-backfill";
+    
+    @Autowired
+    private AiSummaryRepository aiSummaryRepository;
+    
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+    
+    @Autowired
+    private AiService aiService;
+    
+    @Autowired
+    private IncrementalSummarizer incrementalSummarizer;
+    
+    @Autowired
+    private SummaryGateway summaryGateway;
+    
+    @Autowired
+    private MeterRegistry meterRegistry;
+    
+    @Value("${ai.summary.backfill.enabled:true}")
+    private boolean enabled;
+    
+    @Value("${ai.summary.backfill.chunk-size:100}")
+    private int chunkSize;
+    
+    @Value("${ai.summary.backfill.parallelism:2}")
+    private int parallelism;
+    
+    @Value("${ai.summary.backfill.rate-limit:5}")
+    private double rateLimit;
+    
+    private ExecutorService workers;
+    
+    private RateLimiter rateLimiter;
+    
+    private final AtomicBoolean running = new AtomicBoolean();
+    
+    private volatile boolean stopping;
+    
+    private final AtomicLong backlog = new AtomicLong();
+    
+    private Counter generatedCounter;
+    
+    private Counter upToDateCounter;
+    
+    private Counter failedCounter;
+    
+    private Timer itemTimer;
+    
+    @PostConstruct
+    void init() {
+        workers = Executors.newFixedThreadPool(parallelism, new CustomizableThreadFactory("ai-summary-backfill-"));
+        rateLimiter = new RateLimiter(rateLimit);
+        
+        Gauge.builder("ai.summary.backfill.backlog", backlog, AtomicLong::get)
+                .description("Notes still to be summarised in the current backfill pass")
+                .register(meterRegistry);
+        generatedCounter = Counter.builder("ai.summary.backfill.notes")
+                .tag("outcome", "generated")
+                .register(meterRegistry);
+        upToDateCounter = Counter.builder("ai.summary.backfill.notes")
+                .tag("outcome", "up_to_date")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("ai.summary.backfill.notes")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+        itemTimer = Timer.builder("ai.summary.backfill.note.duration")
+                .description("Time to backfill the summary of one note")
+                .register(meterRegistry);
+    }
+    
+    @PreDestroy
+    void shutdown() {
+        stopping = true;
+        workers.shutdownNow();
+    }
+    
+    @Scheduled(initialDelayString = "${ai.summary.backfill.initial-delay:60000}",
+               fixedDelayString = "${ai.summary.backfill.interval:300000}")
+    public void scheduledBackfill() {
+        if (enabled) {
+            runBackfill();
+        }
+    }
+    
+    /**
+     * Continue the current pass from its checkpoint to the end. Does nothing if
+     * a run is already in progress.
+     */
+    public void runBackfill() {
+        if (!running.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            JobCheckpoint checkpoint = jobCheckpointRepository.findById(JOB_NAME)
+                    .orElseGet(() -> new JobCheckpoint(JOB_NAME, 0L, null));
+            backlog.set(aiSummaryRepository.countBackfillCandidates(checkpoint.getLastId()));
+            
+            List<SummaryBackfillCandidate> chunk;
+            do {
+                chunk = aiSummaryRepository.findBackfillCandidates(
+                        checkpoint.getLastId(), PageRequest.of(0, chunkSize));
+                processChunk(chunk);
+                if (stopping) {
+                    return;
+                }
+                if (!chunk.isEmpty()) {
+                    checkpoint.setLastId(chunk.get(chunk.size() - 1).getNoteId());
+                }
+                // A short chunk ends the pass; the next run starts over from the beginning
+                if (chunk.size() < chunkSize) {
+                    checkpoint.setLastId(0L);
+                }
+                checkpoint = jobCheckpointRepository.save(checkpoint);
+            } while (chunk.size() == chunkSize);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            running.set(false);
+        }
+    }
+    
+    private void processChunk(List<SummaryBackfillCandidate> chunk) throws InterruptedException {
+        List<Future<?>> results = new ArrayList<>(chunk.size());
+        for (SummaryBackfillCandidate candidate : chunk) {
+            results.add(workers.submit(() -> itemTimer.record(() -> backfill(candidate))));
+        }
+        for (Future<?> result : results) {
+            try {
+                result.get();
+            } catch (ExecutionException e) {
+                // Already counted; the note is picked up again by the next pass
+            }
+        }
+    }
+    
+    private void backfill(SummaryBackfillCandidate candidate) {
+        try {
+            String contentHash = SummaryCache.contentHash(candidate.getTitle(), candidate.getContent());
+            String generatorVersion = summaryGateway.getGeneratorVersion();
+            
+            if (contentHash.equals(candidate.getContentHash())
+                    && generatorVersion.equals(candidate.getGeneratorVersion())) {
+                aiService.markSummaryCurrent(candidate.getNoteId(), candidate.getUpdatedAt());
+                upToDateCounter.increment();
+                return;
+            }
+            
+            rateLimiter.acquire();
+            ChunkedSummary summary = incrementalSummarizer.summarize(candidate.getNoteId(),
+                    candidate.getTitle(), candidate.getContent(), contentHash);
+            aiService.storeSummary(candidate.getNoteId(), summary.getSummaryText(), summary.getChunks(),
+                    contentHash, generatorVersion, candidate.getUpdatedAt());
+            generatedCounter.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.warn("Summary backfill failed for note {}", candidate.getNoteId(), e);
+            failedCounter.increment();
+        } finally {
+            backlog.decrementAndGet();
+        }
+    }
+}
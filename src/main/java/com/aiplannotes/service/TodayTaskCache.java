@@ -0,0 +1,215 @@
+package com.aiplannotes.service;
+
+import com.aiplannotes.dto.TodayTaskResponse;
+import com.aiplannotes.event.*;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Per-user today task lists, keyed by user and local date. Committed writes update
+ * the cached list in place instead of evicting it, so a warm request runs no
+ * SQL. Entries expire after the TTL, which bounds how long a write on
+ * another node can go unnoticed, and at the end of the user's day at the latest.
+ *
+ * <p>Cached lists and their elements are never mutated; every update
+ * replaces the list with changed copies.
+ */
+@Component
+public class TodayTaskCache {
+
+    private static final Comparator<TodayTaskResponse> BY_NOTE_ID = Comparator.comparing(TodayTaskResponse::getNoteId);
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Autowired
+    private Clock clock;
+
+    @Autowired
+    private UserCalendar userCalendar;
+
+    @Value("${tasks.today-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${tasks.today-cache.ttl:5m}")
+    private Duration ttl;
+
+    private Cache<Key, List<TodayTaskResponse>> cache;
+
+    @PostConstruct
+    void init() {
+        cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfter(new Expiry<Key, List<TodayTaskResponse>>() {
+                    @Override
+                    public long expireAfterCreate(Key key, List<TodayTaskResponse> tasks, long currentTime) {
+                        Duration untilEndOfDay = Duration.between(clock.instant(),
+                                key.getDate().plusDays(1).atStartOfDay(key.getZone()).toInstant());
+                        return Math.max(0, Math.min(ttl.toNanos(), untilEndOfDay.toNanos()));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, List<TodayTaskResponse> tasks,
+                                                  long currentTime, long currentDuration) {
+                        // In-place updates keep the expiry of the last full load
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, List<TodayTaskResponse> tasks,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, cache, "todayTaskCache"));
+    }
+
+    /**
+     * Get a user's task list for a date in their zone, loading it on a miss
+     */
+    public List<TodayTaskResponse> get(Long userId, ZoneId zone, LocalDate date,
+                                       Function<Long, List<TodayTaskResponse>> loader) {
+        return cache.get(new Key(userId, zone, date), key -> {
+            List<TodayTaskResponse> tasks = new ArrayList<>(loader.apply(key.getUserId()));
+            tasks.sort(BY_NOTE_ID);
+            return List.copyOf(tasks);
+        });
+    }
+
+    /**
+     * Drop all of a user's cached lists
+     */
+    public void invalidate(Long userId) {
+        cache.asMap().keySet().removeIf(key -> key.getUserId().equals(userId));
+    }
+
+    // Updates run after commit. A list loaded concurrently may already include
+    // the change, so every update is idempotent.
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteCreated(NoteCreatedEvent event) {
+        update(event.getUserId(), (date, tasks) -> {
+            if (event.getFirstReviewDate().isAfter(date) || indexOf(tasks, event.getNoteId()) >= 0) {
+                return tasks;
+            }
+            List<TodayTaskResponse> updated = new ArrayList<>(tasks);
+            updated.add(new TodayTaskResponse(event.getNoteId(), event.getTitle(), event.getCategoryName(),
+                    event.getIsSupervised(), event.getSupervisionDurationSeconds(), 1, null));
+            updated.sort(BY_NOTE_ID);
+            return updated;
+        });
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNotesImported(NotesImportedEvent event) {
+        // Reloading once is cheaper than inserting a whole batch one note at a time
+        invalidate(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteUpdated(NoteUpdatedEvent event) {
+        update(event.getUserId(), (date, tasks) -> replace(tasks, event.getNoteId(), task ->
+                new TodayTaskResponse(task.getNoteId(), event.getTitle(), event.getCategoryName(),
+                        event.getIsSupervised(), event.getSupervisionDurationSeconds(),
+                        task.getCurrentReviewStage(), task.getAiSummary())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onNoteDeleted(NoteDeletedEvent event) {
+        update(event.getUserId(), (date, tasks) -> remove(tasks, List.of(event.getNoteId())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onReviewsSubmitted(ReviewsSubmittedEvent event) {
+        // A completed review is always rescheduled to a later day
+        update(event.getUserId(), (date, tasks) -> remove(tasks, event.getNoteIds()));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onSummaryStored(SummaryStoredEvent event) {
+        update(event.getUserId(), (date, tasks) -> replace(tasks, event.getNoteId(), task ->
+                new TodayTaskResponse(task.getNoteId(), task.getTitle(), task.getCategoryName(),
+                        task.getIsSupervised(), task.getSupervisionDurationSeconds(),
+                        task.getCurrentReviewStage(), event.getSummaryText())));
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeZoneChanged(UserTimeZoneChangedEvent event) {
+        // Lists are keyed by the user's local date, which may have changed
+        invalidate(event.getUserId());
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCategoryRenamed(CategoryRenamedEvent event) {
+        // Task rows carry only the category name, so the affected rows are unknown
+        invalidate(event.getUserId());
+    }
+
+    private interface TaskListUpdate {
+        List<TodayTaskResponse> apply(LocalDate date, List<TodayTaskResponse> tasks);
+    }
+
+    private void update(Long userId, TaskListUpdate update) {
+        ZoneId zone = userCalendar.zone(userId);
+        LocalDate today = userCalendar.today(userId);
+        // Yesterday's list may still be cached for a moment around midnight
+        for (LocalDate date : List.of(today, today.minusDays(1))) {
+            cache.asMap().computeIfPresent(new Key(userId, zone, date),
+                    (key, tasks) -> List.copyOf(update.apply(key.getDate(), tasks)));
+        }
+    }
+
+    private static int indexOf(List<TodayTaskResponse> tasks, Long noteId) {
+        for (int i = 0; i < tasks.size(); i++) {
+            if (tasks.get(i).getNoteId().equals(noteId)) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private static List<TodayTaskResponse> replace(List<TodayTaskResponse> tasks, Long noteId,
+                                                   UnaryOperator<TodayTaskResponse> change) {
+        int index = indexOf(tasks, noteId);
+        if (index < 0) {
+            return tasks;
+        }
+        List<TodayTaskResponse> updated = new ArrayList<>(tasks);
+        updated.set(index, change.apply(tasks.get(index)));
+        return updated;
+    }
+
+    private static List<TodayTaskResponse> remove(List<TodayTaskResponse> tasks, List<Long> noteIds) {
+        List<TodayTaskResponse> updated = new ArrayList<>(tasks);
+        updated.removeIf(task -> noteIds.contains(task.getNoteId()));
+        return updated.size() == tasks.size() ? tasks : updated;
+    }
+
+    @lombok.Value
+    private static class Key {
+        Long userId;
+        ZoneId zone;
+        LocalDate date;
+    }
+}
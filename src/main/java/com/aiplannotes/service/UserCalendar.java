@@ -0,0 +1,103 @@
+package com.aiplannotes.service;
+
+import com.aiplannotes.event.UserTimeZoneChangedEvent;
+import com.aiplannotes.exception.BusinessException;
+import com.aiplannotes.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+/**
+ * Each user's local calendar: review dates are scheduled and compared in the
+ * user's own time zone, read from the injected clock rather than the JVM
+ * default zone. Time zones are cached per user so a warm request runs no SQL.
+ */
+@Component
+public class UserCalendar {
+
+    @Autowired
+    private Clock clock;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private ObjectProvider<MeterRegistry> meterRegistry;
+
+    @Value("${calendar.zone-cache.maximum-size:10000}")
+    private long maximumSize;
+
+    @Value("${calendar.zone-cache.ttl:10m}")
+    private Duration ttl;
+
+    private Cache<Long, ZoneId> zones;
+
+    @PostConstruct
+    void init() {
+        zones = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(ttl)
+                .recordStats()
+                .build();
+        meterRegistry.ifAvailable(registry -> CaffeineCacheMetrics.monitor(registry, zones, "userZoneCache"));
+    }
+
+    /**
+     * The user's time zone; UTC if the user no longer exists
+     */
+    public ZoneId zone(Long userId) {
+        return zones.get(userId, id -> userRepository.findTimeZoneById(id)
+                .map(ZoneId::of)
+                .orElse(ZoneOffset.UTC));
+    }
+
+    /**
+     * The current date in the user's time zone
+     */
+    public LocalDate today(Long userId) {
+        return LocalDate.now(clock.withZone(zone(userId)));
+    }
+
+    /**
+     * The current instant, for timestamps that are not calendar dates
+     */
+    public Timestamp now() {
+        return Timestamp.from(clock.instant());
+    }
+
+    public void evict(Long userId) {
+        zones.invalidate(userId);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onTimeZoneChanged(UserTimeZoneChangedEvent event) {
+        evict(event.getUserId());
+    }
+
+    /**
+     * Validate and normalise a zone ID supplied by a client
+     * @return the canonical zone ID
+     */
+    public static String parseZone(String timeZone) {
+        try {
+            return ZoneId.of(timeZone).getId();
+        } catch (DateTimeException e) {
+            throw new BusinessException(400, "Invalid request: unknown time zone " + timeZone);
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.aiplannotes.util;
+
+import lombok.Value;
+
+import java.time.Instant;
+
+/**
+ * Immutable view of a verified JWT's claims
+ */
+@Value
+public class JwtClaims {
+    String subject;
+    Long userId;
+    Integer tokenVersion;
+    Instant issuedAt;
+    Instant expiration;
+
+    public boolean isExpired(Instant now) {
+        return expiration != null && !expiration.isAfter(now);
+    }
+}
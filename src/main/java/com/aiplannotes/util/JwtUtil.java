@@ -1,14 +1,24 @@
 package com.aiplannotes.util;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -17,23 +27,71 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+    public static final String CLAIM_USER_ID = "uid";
+    public static final String CLAIM_TOKEN_VERSION = "ver";
+
     @Value("${jwt.secret}")
     private String secret;
 
     @Value("${jwt.expiration}")
     private Long expiration;
 
-    private SecretKey getSigningKey() {
-        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
-        return Keys.hmacShaKeyFor(keyBytes);
+    @Value("${jwt.verified-cache.maximum-size:10000}")
+    private long verifiedCacheSize;
+
+    // Key and parser are immutable and thread-safe, so build them once
+    private SecretKey signingKey;
+
+    private JwtParser parser;
+
+    private Cache<String, JwtClaims> verifiedTokens;
+
+    @PostConstruct
+    void init() {
+        signingKey = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
+        parser = Jwts.parser()
+                .verifyWith(signingKey)
+                .build();
+        if (verifiedCacheSize > 0) {
+            verifiedTokens = Caffeine.newBuilder()
+                    .maximumSize(verifiedCacheSize)
+                    .expireAfter(new TokenExpiry())
+                    .build();
+        }
+    }
+
+    /**
+     * Verify a token's signature and expiry and decode its claims in a single pass
+     * @param token the compact JWT
+     * @return the verified claims
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public JwtClaims parseToken(String token) {
+        if (verifiedTokens == null) {
+            return toJwtClaims(extractAllClaims(token));
+        }
+
+        String digest = digest(token);
+        JwtClaims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null) {
+            if (cached.isExpired(Instant.now())) {
+                verifiedTokens.invalidate(digest);
+                throw new ExpiredJwtException(null, null, "JWT expired");
+            }
+            return cached;
+        }
+
+        JwtClaims claims = toJwtClaims(extractAllClaims(token));
+        verifiedTokens.put(digest, claims);
+        return claims;
     }
 
     public String extractUsername(String token) {
-        return extractClaim(token, Claims::getSubject);
+        return parseToken(token).getSubject();
     }
 
     public Date extractExpiration(String token) {
-        return extractClaim(token, Claims::getExpiration);
+        return Date.from(parseToken(token).getExpiration());
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
@@ -42,15 +100,26 @@ public class JwtUtil {
     }
 
     private Claims extractAllClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
+    }
+
+    private JwtClaims toJwtClaims(Claims claims) {
+        return new JwtClaims(
+                claims.getSubject(),
+                claims.get(CLAIM_USER_ID, Long.class),
+                claims.get(CLAIM_TOKEN_VERSION, Integer.class),
+                claims.getIssuedAt() != null ? claims.getIssuedAt().toInstant() : null,
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null
+        );
     }
 
-    private Boolean isTokenExpired(String token) {
-        return extractExpiration(token).before(new Date());
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     public String generateToken(String username) {
@@ -58,18 +127,54 @@ public class JwtUtil {
         return createToken(claims, username);
     }
 
+    /**
+     * Generate a token that also carries the user ID and token version so the
+     * authentication filter can trust it without loading the user
+     */
+    public String generateToken(String username, Long userId, Integer tokenVersion) {
+        Map<String, Object> claims = new HashMap<>();
+        claims.put(CLAIM_USER_ID, userId);
+        claims.put(CLAIM_TOKEN_VERSION, tokenVersion);
+        return createToken(claims, username);
+    }
+
     private String createToken(Map<String, Object> claims, String subject) {
         return Jwts.builder()
                 .setClaims(claims)
                 .setSubject(subject)
                 .setIssuedAt(new Date(System.currentTimeMillis()))
                 .setExpiration(new Date(System.currentTimeMillis() + expiration))
-                .signWith(getSigningKey(), SignatureAlgorithm.HS256)
+                .signWith(signingKey, SignatureAlgorithm.HS256)
                 .compact();
     }
 
     public Boolean validateToken(String token, String username) {
-        final String extractedUsername = extractUsername(token);
-        return (extractedUsername.equals(username) && !isTokenExpired(token));
+        final JwtClaims claims = parseToken(token);
+        return (claims.getSubject().equals(username) && !claims.isExpired(Instant.now()));
+    }
+
+    /**
+     * Keeps each verified token cached no longer than its own expiry
+     */
+    private static class TokenExpiry implements Expiry<String, JwtClaims> {
+
+        @Override
+        public long expireAfterCreate(String key, JwtClaims claims, long currentTime) {
+            if (claims.getExpiration() == null) {
+                return 0;
+            }
+            long remainingMillis = claims.getExpiration().toEpochMilli() - System.currentTimeMillis();
+            return Math.max(0, remainingMillis) * 1_000_000L;
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
+
+        @Override
+        public long expireAfterRead(String key, JwtClaims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
 }
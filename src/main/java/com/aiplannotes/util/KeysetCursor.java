@@ -0,0 +1,56 @@
+package com.aiplannotes.util;
+
+import com.aiplannotes.exception.BusinessException;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Opaque continuation token for keyset pagination on (createdAt, id). The
+ * token names the sort it was issued for, e.g. {@code createdAt.desc}, so it
+ * cannot be replayed against a different ordering.
+ */
+@Getter
+@AllArgsConstructor
+public class KeysetCursor {
+
+    private final String sort;
+    private final Timestamp createdAt;
+    private final Long id;
+
+    public String encode() {
+        Instant instant = createdAt.toInstant();
+        String raw = sort + ":" + instant.getEpochSecond() + ":" + instant.getNano() + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a token produced by {@link #encode()}
+     * @param sort the sort of the current request; the token must have been issued for it
+     * @throws BusinessException if the token is malformed or belongs to another sort
+     */
+    public static KeysetCursor decode(String token, String sort) {
+        String[] parts;
+        Instant instant;
+        long id;
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            parts = raw.split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException();
+            }
+            instant = Instant.ofEpochSecond(Long.parseLong(parts[1]), Long.parseLong(parts[2]));
+            id = Long.parseLong(parts[3]);
+        } catch (IllegalArgumentException | java.time.DateTimeException e) {
+            throw new BusinessException(400, "Invalid request: malformed cursor");
+        }
+        if (!parts[0].equals(sort)) {
+            throw new BusinessException(400, "Invalid request: cursor does not match the requested sort");
+        }
+        return new KeysetCursor(sort, Timestamp.from(instant), id);
+    }
+}
@@ -1,7 +1,8 @@
 package com.aiplannotes.util;
 
 import com.aiplannotes.exception.BusinessException;
-import com.aiplannotes.repository.UserRepository;
+import com.aiplannotes.security.AuthenticatedUser;
+import com.aiplannotes.security.UserIdCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -10,11 +11,11 @@ import org.springframework.stereotype.Component;
 @Component
 public class SecurityUtils {
     
-    private static UserRepository userRepository;
+    private static UserIdCache userIdCache;
     
     @Autowired
-    public SecurityUtils(UserRepository userRepository) {
-        SecurityUtils.userRepository = userRepository;
+    public SecurityUtils(UserIdCache userIdCache) {
+        SecurityUtils.userIdCache = userIdCache;
     }
     
     /**
@@ -28,9 +29,12 @@ public class SecurityUtils {
             throw new BusinessException(401, "Unauthorized");
         }
         
-        String username = authentication.getName();
-        return userRepository.findByUsername(username)
-                .orElseThrow(() -> new BusinessException(401, "Unauthorized"))
-                .getId();
+        // The JWT filter already resolved the ID for this request
+        if (authentication.getPrincipal() instanceof AuthenticatedUser user) {
+            return user.getId();
+        }
+        
+        return userIdCache.getUserId(authentication.getName())
+                .orElseThrow(() -> new BusinessException(401, "Unauthorized"));
     }
 }
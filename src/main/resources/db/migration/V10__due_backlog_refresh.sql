@@ -0,0 +1,9 @@
+-- reviews.due.backlog counts across all users: scheduled_for < ? and the
+-- per-zone scheduled_for BETWEEN ? AND ? window. idx_pending_reviews_user_due
+-- leads with user_id and cannot serve either range.
+CREATE INDEX idx_pending_reviews_scheduled_for ON pending_reviews (scheduled_for);
+
+-- Refresh lease of the backlog gauge: the node that claims it recounts and
+-- stores the count in last_id, every node publishes the stored count
+INSERT INTO job_checkpoints (job_name, last_id, updated_at)
+VALUES ('due-review-backlog', 0, '1970-01-01 00:00:00');
@@ -0,0 +1,6 @@
+-- Added after V1 so that databases baselined at V1 get them too.
+-- Bumped to revoke every token issued before; existing users start at 0.
+ALTER TABLE users ADD COLUMN token_version INT NOT NULL DEFAULT 0;
+
+-- Note list keyset pages and the export read a user's notes in this order
+CREATE INDEX idx_notes_user_category_created ON notes (user_id, category_id, created_at, id);
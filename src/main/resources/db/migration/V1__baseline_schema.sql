@@ -0,0 +1,63 @@
+-- Baseline schema, equivalent to what ddl-auto: update produced before migrations were introduced.
+-- Existing databases are baselined at this version (spring.flyway.baseline-on-migrate) and skip it.
+
+CREATE TABLE users (
+    id            BIGINT       NOT NULL AUTO_INCREMENT,
+    username      VARCHAR(50)  NOT NULL,
+    password_hash VARCHAR(255) NOT NULL,
+    email         VARCHAR(100) NOT NULL,
+    created_at    DATETIME(6)  NOT NULL,
+    updated_at    DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE categories (
+    id         BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id    BIGINT       NOT NULL,
+    name       VARCHAR(100) NOT NULL,
+    created_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_categories_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+CREATE TABLE notes (
+    id                           BIGINT       NOT NULL AUTO_INCREMENT,
+    user_id                      BIGINT       NOT NULL,
+    category_id                  BIGINT,
+    title                        VARCHAR(255) NOT NULL,
+    content                      TEXT         NOT NULL,
+    is_supervised                BOOLEAN      NOT NULL,
+    supervision_duration_seconds INT          NOT NULL,
+    created_at                   DATETIME(6)  NOT NULL,
+    updated_at                   DATETIME(6)  NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_notes_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_notes_category FOREIGN KEY (category_id) REFERENCES categories (id)
+);
+
+CREATE TABLE ai_summaries (
+    id           BIGINT      NOT NULL AUTO_INCREMENT,
+    note_id      BIGINT      NOT NULL,
+    summary_text TEXT        NOT NULL,
+    model_used   VARCHAR(50),
+    created_at   DATETIME(6) NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_ai_summaries_note UNIQUE (note_id),
+    CONSTRAINT fk_ai_summaries_note FOREIGN KEY (note_id) REFERENCES notes (id)
+);
+
+CREATE TABLE review_records (
+    id                      BIGINT      NOT NULL AUTO_INCREMENT,
+    note_id                 BIGINT      NOT NULL,
+    stage_number            INT         NOT NULL,
+    scheduled_for           DATE        NOT NULL,
+    reviewed_at             DATETIME(6),
+    result                  VARCHAR(20),
+    review_duration_seconds INT,
+    PRIMARY KEY (id),
+    CONSTRAINT fk_review_records_note FOREIGN KEY (note_id) REFERENCES notes (id)
+);
+
+CREATE INDEX idx_scheduled_for ON review_records (scheduled_for);
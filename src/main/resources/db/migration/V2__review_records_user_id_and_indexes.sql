@@ -0,0 +1,19 @@
+-- Denormalise the owning user onto review_records so the due-task lookup no longer joins notes,
+-- and replace the single-column index with covering indexes for the real query shapes.
+
+ALTER TABLE review_records ADD COLUMN user_id BIGINT NULL;
+
+UPDATE review_records SET user_id = (SELECT n.user_id FROM notes n WHERE n.id = review_records.note_id);
+
+ALTER TABLE review_records MODIFY user_id BIGINT NOT NULL;
+
+ALTER TABLE review_records
+    ADD CONSTRAINT fk_review_records_user FOREIGN KEY (user_id) REFERENCES users (id);
+
+-- Due tasks: user_id = ? AND reviewed_at IS NULL AND scheduled_for <= ?
+CREATE INDEX idx_review_records_user_due ON review_records (user_id, reviewed_at, scheduled_for, note_id);
+
+-- Current record of a note: note_id = ? AND reviewed_at IS NULL ORDER BY scheduled_for
+CREATE INDEX idx_review_records_note_pending ON review_records (note_id, reviewed_at, scheduled_for);
+
+ALTER TABLE review_records DROP INDEX idx_scheduled_for;
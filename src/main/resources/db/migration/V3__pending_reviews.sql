@@ -0,0 +1,34 @@
+-- Compact due-review state: one row per note with its current stage and next due date.
+-- review_records becomes an append-only history of completed reviews.
+
+CREATE TABLE pending_reviews (
+    note_id       BIGINT NOT NULL,
+    user_id       BIGINT NOT NULL,
+    stage_number  INT    NOT NULL,
+    scheduled_for DATE   NOT NULL,
+    PRIMARY KEY (note_id),
+    CONSTRAINT fk_pending_reviews_note FOREIGN KEY (note_id) REFERENCES notes (id) ON DELETE CASCADE,
+    CONSTRAINT fk_pending_reviews_user FOREIGN KEY (user_id) REFERENCES users (id)
+);
+
+-- Due tasks: user_id = ? AND scheduled_for <= ?
+CREATE INDEX idx_pending_reviews_user_due ON pending_reviews (user_id, scheduled_for);
+
+-- Move the open record of each note over; there is normally exactly one
+INSERT INTO pending_reviews (note_id, user_id, stage_number, scheduled_for)
+SELECT r.note_id, r.user_id, r.stage_number, r.scheduled_for
+FROM review_records r
+WHERE r.reviewed_at IS NULL
+  AND r.id = (SELECT MIN(r2.id) FROM review_records r2
+              WHERE r2.note_id = r.note_id AND r2.reviewed_at IS NULL);
+
+DELETE FROM review_records WHERE reviewed_at IS NULL;
+
+ALTER TABLE review_records MODIFY reviewed_at DATETIME(6) NOT NULL;
+
+-- History access paths; created before dropping the old indexes so the foreign keys stay covered
+CREATE INDEX idx_review_records_note_history ON review_records (note_id, reviewed_at);
+CREATE INDEX idx_review_records_user_history ON review_records (user_id, reviewed_at);
+
+ALTER TABLE review_records DROP INDEX idx_review_records_user_due;
+ALTER TABLE review_records DROP INDEX idx_review_records_note_pending;
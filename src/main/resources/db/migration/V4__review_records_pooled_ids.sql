@@ -0,0 +1,15 @@
+-- Table-backed pooled ID allocation. IDENTITY forces an immediate INSERT per row and
+-- disables Hibernate JDBC batching; a shared generator table works on MySQL and H2 alike.
+
+CREATE TABLE id_generators (
+    sequence_name VARCHAR(255) NOT NULL,
+    next_val      BIGINT,
+    PRIMARY KEY (sequence_name)
+);
+
+-- The pooled optimizer hands out (next_val - 49 .. next_val) from the first block,
+-- so start one allocation (50) above the current maximum
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'review_records', COALESCE(MAX(id), 0) + 50 FROM review_records;
+
+ALTER TABLE review_records MODIFY id BIGINT NOT NULL;
@@ -0,0 +1,18 @@
+-- Move the remaining entities to the pooled id_generators allocation introduced in V4,
+-- again starting one allocation (50) above the current maximum of each table.
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'users', COALESCE(MAX(id), 0) + 50 FROM users;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'categories', COALESCE(MAX(id), 0) + 50 FROM categories;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'notes', COALESCE(MAX(id), 0) + 50 FROM notes;
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'ai_summaries', COALESCE(MAX(id), 0) + 50 FROM ai_summaries;
+
+-- These ids are referenced by foreign keys, so the AUTO_INCREMENT attribute is left in
+-- place rather than rebuilding the constraints; the application always supplies the id
+-- explicitly and MySQL/H2 accept explicit values for auto-increment columns.
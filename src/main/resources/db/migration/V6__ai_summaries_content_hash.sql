@@ -0,0 +1,8 @@
+-- Record what each summary was generated from, so unchanged notes are not re-summarised
+-- and identical content can reuse an existing summary across notes.
+-- Existing rows keep NULLs and are regenerated on their next request.
+
+ALTER TABLE ai_summaries ADD COLUMN content_hash VARCHAR(64);
+ALTER TABLE ai_summaries ADD COLUMN generator_version VARCHAR(50);
+
+CREATE INDEX idx_ai_summaries_content ON ai_summaries (content_hash, generator_version);
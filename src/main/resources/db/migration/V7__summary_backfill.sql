@@ -0,0 +1,11 @@
+-- Note version each summary was generated from: a summary is stale when the note
+-- has been updated since. Existing rows stay NULL and are treated as stale.
+ALTER TABLE ai_summaries ADD COLUMN source_updated_at DATETIME(6);
+
+-- Resume points of long-running background jobs
+CREATE TABLE job_checkpoints (
+    job_name   VARCHAR(100) NOT NULL,
+    last_id    BIGINT       NOT NULL,
+    updated_at DATETIME(6)  NOT NULL,
+    PRIMARY KEY (job_name)
+);
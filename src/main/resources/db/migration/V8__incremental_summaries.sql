@@ -0,0 +1,20 @@
+-- Set when a note's title or content changes after its summary was generated,
+-- cleared once the summary has been regenerated
+ALTER TABLE ai_summaries ADD COLUMN stale BOOLEAN NOT NULL DEFAULT FALSE;
+
+-- Per-paragraph summaries of long notes. A note's summary is reduced from these,
+-- and after an edit only paragraphs whose hash changed are summarised again.
+CREATE TABLE ai_summary_chunks (
+    id                BIGINT      NOT NULL,
+    note_id           BIGINT      NOT NULL,
+    chunk_index       INT         NOT NULL,
+    chunk_hash        VARCHAR(64) NOT NULL,
+    generator_version VARCHAR(50) NOT NULL,
+    summary_text      TEXT        NOT NULL,
+    PRIMARY KEY (id),
+    CONSTRAINT uk_ai_summary_chunks_note_index UNIQUE (note_id, chunk_index),
+    CONSTRAINT fk_ai_summary_chunks_note FOREIGN KEY (note_id) REFERENCES notes (id) ON DELETE CASCADE
+);
+
+INSERT INTO id_generators (sequence_name, next_val)
+SELECT 'ai_summary_chunks', COALESCE(MAX(id), 0) + 50 FROM ai_summary_chunks;
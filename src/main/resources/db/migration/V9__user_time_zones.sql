@@ -0,0 +1,5 @@
+-- IANA time zone of each user. Review dates (pending_reviews.scheduled_for) are
+-- calendar dates in this zone, so idx_pending_reviews_user_due serves the due
+-- query for every zone with the user's local date as the bound.
+-- Existing users get UTC, the zone API timestamps are rendered in.
+ALTER TABLE users ADD COLUMN time_zone VARCHAR(64) NOT NULL DEFAULT 'UTC';
@@ -0,0 +1,282 @@
+package com.aiplannotes.ai;
+
+import com.aiplannotes.exception.BusinessException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Batching, queue bound, timeout, circuit breaker and stream cancellation behaviour of the gateway around a fake generator.
+ */
+class SummaryGatewayTest {
+
+    private SummaryGateway gateway;
+
+    private SummaryGateway newGateway(Function<List<SummaryInput>, List<String>> generator,
+                                      int maxBatchSize, Duration callTimeout, int failureThreshold) {
+        return newGateway(generator, maxBatchSize, callTimeout, failureThreshold, 100);
+    }
+
+    private SummaryGateway newGateway(Function<List<SummaryInput>, List<String>> generator, int maxBatchSize,
+                                      Duration callTimeout, int failureThreshold, int queueCapacity) {
+        SummaryGateway summaryGateway = new SummaryGateway();
+        ReflectionTestUtils.setField(summaryGateway, "summaryGenerator", new SummaryGenerator() {
+            @Override
+            public String getModelName() {
+                return "fake";
+            }
+
+            @Override
+            public String generate(String title, String content) {
+                return generateBatch(List.of(new SummaryInput(title, content))).get(0);
+            }
+
+            @Override
+            public List<String> generateBatch(List<SummaryInput> inputs) {
+                return generator.apply(inputs);
+            }
+        });
+        ReflectionTestUtils.setField(summaryGateway, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(summaryGateway, "maxBatchSize", maxBatchSize);
+        ReflectionTestUtils.setField(summaryGateway, "maxBatchWait", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(summaryGateway, "queueCapacity", queueCapacity);
+        ReflectionTestUtils.setField(summaryGateway, "callTimeout", callTimeout);
+        ReflectionTestUtils.setField(summaryGateway, "maxConcurrentCalls", 1);
+        ReflectionTestUtils.setField(summaryGateway, "failureThreshold", failureThreshold);
+        ReflectionTestUtils.setField(summaryGateway, "openDuration", Duration.ofMinutes(1));
+        ReflectionTestUtils.invokeMethod(summaryGateway, "init");
+        gateway = summaryGateway;
+        return summaryGateway;
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (gateway != null) {
+            ReflectionTestUtils.invokeMethod(gateway, "shutdown");
+        }
+    }
+
+    private static void await(String what, BooleanSupplier condition) throws InterruptedException {
+        for (int attempt = 0; attempt < 200 && !condition.getAsBoolean(); attempt++) {
+            Thread.sleep(10);
+        }
+        assertTrue(condition.getAsBoolean(), what);
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testConcurrentRequestsAreCoalescedIntoBatches() {
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        SummaryGateway summaryGateway = newGateway(inputs -> {
+            batchSizes.add(inputs.size());
+            sleep(20);
+            return inputs.stream().map(input -> "summary of " + input.getTitle()).toList();
+        }, 4, Duration.ofSeconds(5), 5);
+
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            results.add(summaryGateway.submit("note " + i, "content"));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("summary of note " + i, results.get(i).join());
+        }
+        assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertTrue(batchSizes.size() < 10, "expected batched calls but got " + batchSizes);
+        assertTrue(batchSizes.stream().allMatch(size -> size <= 4), batchSizes.toString());
+    }
+
+    @Test
+    void testSlowCallTimesOut() {
+        SummaryGateway summaryGateway = newGateway(inputs -> {
+            sleep(2_000);
+            return inputs.stream().map(SummaryInput::getTitle).toList();
+        }, 1, Duration.ofMillis(100), 5);
+
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> summaryGateway.summarize("slow", "content"));
+        assertEquals(504, e.getCode());
+    }
+
+    @Test
+    void testCircuitOpensAfterConsecutiveFailures() {
+        AtomicInteger calls = new AtomicInteger();
+        SummaryGateway summaryGateway = newGateway(inputs -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException("model server down");
+        }, 1, Duration.ofSeconds(5), 2);
+
+        assertThrows(IllegalStateException.class, () -> summaryGateway.summarize("a", "content"));
+        assertThrows(IllegalStateException.class, () -> summaryGateway.summarize("b", "content"));
+        assertEquals(CircuitBreaker.State.OPEN, summaryGateway.getCircuitState());
+
+        // Rejected without reaching the generator
+        BusinessException e = assertThrows(BusinessException.class,
+                () -> summaryGateway.summarize("c", "content"));
+        assertEquals(503, e.getCode());
+        assertEquals(2, calls.get());
+    }
+
+    @Test
+    void testCancelledStreamFreesItsCallSlot() throws Exception {
+        SummaryGateway summaryGateway = newGateway(inputs -> {
+            try {
+                Thread.sleep(5_000);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException("interrupted", e);
+            }
+            return inputs.stream().map(SummaryInput::getTitle).toList();
+        }, 1, Duration.ofSeconds(10), 5);
+
+        AtomicInteger outcomes = new AtomicInteger();
+        SummaryStream stream = summaryGateway.stream("slow", "content", new SummaryStreamListener() {
+            @Override
+            public void onToken(String token) {
+            }
+
+            @Override
+            public void onComplete(String summaryText) {
+                outcomes.incrementAndGet();
+            }
+
+            @Override
+            public void onError(RuntimeException e) {
+                outcomes.incrementAndGet();
+            }
+        });
+
+        // The only slot is taken by the running stream
+        assertThrows(BusinessException.class, () -> summaryGateway.stream("other", "content", null));
+
+        stream.cancel();
+        Semaphore bulkhead = (Semaphore) ReflectionTestUtils.getField(summaryGateway, "bulkhead");
+        for (int attempt = 0; attempt < 100 && bulkhead.availablePermits() == 0; attempt++) {
+            Thread.sleep(10);
+        }
+        assertEquals(1, bulkhead.availablePermits());
+        assertEquals(0, outcomes.get());
+        assertEquals(CircuitBreaker.State.CLOSED, summaryGateway.getCircuitState());
+    }
+
+    @Test
+    void testFinishedCallsCancelTheirTimeouts() throws Exception {
+        SummaryGateway summaryGateway = newGateway(
+                inputs -> inputs.stream().map(SummaryInput::getTitle).toList(), 1, Duration.ofMinutes(5), 5);
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals("note " + i, summaryGateway.summarize("note " + i, "content"));
+        }
+
+        ScheduledThreadPoolExecutor timeoutScheduler =
+                (ScheduledThreadPoolExecutor) ReflectionTestUtils.getField(summaryGateway, "timeoutScheduler");
+        await("timeouts left behind", () -> timeoutScheduler.getQueue().isEmpty());
+    }
+
+    @Test
+    void testFullQueueRejectsNewRequests() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SummaryGateway summaryGateway = newGateway(inputs -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return inputs.stream().map(SummaryInput::getTitle).toList();
+        }, 1, Duration.ofSeconds(10), 5, 2);
+
+        // One batch in the only call slot, one held by the dispatcher waiting for the slot
+        List<CompletableFuture<String>> accepted = new ArrayList<>();
+        accepted.add(summaryGateway.submit("a", "content"));
+        accepted.add(summaryGateway.submit("b", "content"));
+        BlockingQueue<?> queue = (BlockingQueue<?>) ReflectionTestUtils.getField(summaryGateway, "queue");
+        await("dispatcher took both requests", queue::isEmpty);
+        accepted.add(summaryGateway.submit("c", "content"));
+        accepted.add(summaryGateway.submit("d", "content"));
+
+        CompletableFuture<String> rejected = summaryGateway.submit("e", "content");
+        assertTrue(rejected.isCompletedExceptionally());
+        BusinessException e = assertThrows(BusinessException.class, () -> summaryGateway.summarize("f", "content"));
+        assertEquals(503, e.getCode());
+
+        release.countDown();
+        assertEquals(List.of("a", "b", "c", "d"), accepted.stream().map(CompletableFuture::join).toList());
+    }
+
+    @Test
+    void testDispatcherSurvivesAFailedDispatch() throws Exception {
+        SummaryGateway summaryGateway = newGateway(
+                inputs -> inputs.stream().map(SummaryInput::getTitle).toList(), 1, Duration.ofSeconds(5), 5);
+        ExecutorService callExecutor = (ExecutorService) ReflectionTestUtils.getField(summaryGateway, "callExecutor");
+        AtomicBoolean failNext = new AtomicBoolean(true);
+        ReflectionTestUtils.setField(summaryGateway, "callExecutor", new AbstractExecutorService() {
+            @Override
+            public void execute(Runnable command) {
+                if (failNext.getAndSet(false)) {
+                    throw new RejectedExecutionException("executor unavailable");
+                }
+                callExecutor.execute(command);
+            }
+
+            @Override
+            public void shutdown() {
+                callExecutor.shutdown();
+            }
+
+            @Override
+            public List<Runnable> shutdownNow() {
+                return callExecutor.shutdownNow();
+            }
+
+            @Override
+            public boolean isShutdown() {
+                return callExecutor.isShutdown();
+            }
+
+            @Override
+            public boolean isTerminated() {
+                return callExecutor.isTerminated();
+            }
+
+            @Override
+            public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+                return callExecutor.awaitTermination(timeout, unit);
+            }
+        });
+
+        BusinessException e = assertThrows(BusinessException.class, () -> summaryGateway.summarize("a", "content"));
+        assertEquals(500, e.getCode());
+        // Later batches are still served and the call slot was given back
+        assertEquals("b", summaryGateway.summarize("b", "content"));
+        Semaphore bulkhead = (Semaphore) ReflectionTestUtils.getField(summaryGateway, "bulkhead");
+        await("call slot released", () -> bulkhead.availablePermits() == 1);
+        assertEquals(CircuitBreaker.State.CLOSED, summaryGateway.getCircuitState());
+    }
+}
@@ -0,0 +1,47 @@
+package com.aiplannotes.ai;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Paragraph, sentence and length boundaries of the summary chunker.
+ */
+class TextChunkerTest {
+
+    @Test
+    void testSentencesSplitOnChineseAndWesternPunctuation() {
+        assertEquals(List.of("第一句。", "他说：“好的！”", "真的吗？！", "等等……", "Pi is 3.14.", " Done"),
+                TextChunker.sentences("第一句。他说：“好的！”真的吗？！等等……Pi is 3.14. Done"));
+    }
+
+    @Test
+    void testShortParagraphsAreChunksOfTheirOwn() {
+        assertEquals(List.of("第一段。", "第二段。"), TextChunker.chunks("第一段。\n\n  \n第二段。\n", 100));
+    }
+
+    @Test
+    void testLongParagraphIsPackedOnSentenceBoundaries() {
+        String sentence = "这句话有十一个字符长。";
+        List<String> chunks = TextChunker.chunks(sentence.repeat(7), 33);
+
+        assertEquals(List.of(sentence.repeat(3), sentence.repeat(3), sentence), chunks);
+    }
+
+    @Test
+    void testSentenceLongerThanLimitIsCut() {
+        List<String> chunks = TextChunker.chunks("长".repeat(25), 10);
+
+        assertEquals(List.of("长".repeat(10), "长".repeat(10), "长".repeat(5)), chunks);
+    }
+
+    @Test
+    void testParagraphsChangedIgnoresWhitespaceBetweenParagraphs() {
+        assertTrue(TextChunker.paragraphsChanged("一。\n\n二。\n\n三。", "一。\n\n二，改。\n\n三。"));
+        assertTrue(TextChunker.paragraphsChanged("一。\n\n二。", "二。\n\n一。"));
+
+        assertFalse(TextChunker.paragraphsChanged("一。\n\n二。", "一。\n\n\n\n二。  "));
+    }
+}
@@ -0,0 +1,82 @@
+package com.aiplannotes.benchmark;
+
+import com.aiplannotes.util.JwtUtil;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares tokens/sec of the per-request JWT validation path before and after
+ * the parse-once API. The legacy path mirrors the old filter: extractUsername
+ * followed by validateToken, i.e. three parses that each rebuild the key and parser.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtValidationBenchmark {
+
+    private static final String SECRET = "benchmark-secret-key-for-jwt-validation-at-least-256-bits-long";
+
+    private JwtUtil uncached;
+    private JwtUtil cached;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        uncached = newJwtUtil(0);
+        cached = newJwtUtil(10_000);
+        token = uncached.generateToken("benchmark-user", 42L, 0);
+    }
+
+    private static JwtUtil newJwtUtil(long cacheSize) {
+        JwtUtil jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", SECRET);
+        ReflectionTestUtils.setField(jwtUtil, "expiration", 86_400_000L);
+        ReflectionTestUtils.setField(jwtUtil, "verifiedCacheSize", cacheSize);
+        ReflectionTestUtils.invokeMethod(jwtUtil, "init");
+        return jwtUtil;
+    }
+
+    @Benchmark
+    public boolean legacyPerRequest() {
+        String username = legacyParse(token).getSubject();
+        boolean usernameMatches = legacyParse(token).getSubject().equals(username);
+        return usernameMatches && !legacyParse(token).getExpiration().before(new Date());
+    }
+
+    @Benchmark
+    public Object parseOnce() {
+        return uncached.parseToken(token);
+    }
+
+    @Benchmark
+    public Object parseOnceCached() {
+        return cached.parseToken(token);
+    }
+
+    private static Claims legacyParse(String token) {
+        return Jwts.parser()
+                .verifyWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+                .build()
+                .parseSignedClaims(token)
+                .getPayload();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(JwtValidationBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
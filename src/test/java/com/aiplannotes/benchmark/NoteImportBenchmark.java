@@ -0,0 +1,105 @@
+package com.aiplannotes.benchmark;
+
+import com.aiplannotes.AiPlanNotesApplication;
+import com.aiplannotes.entity.User;
+import com.aiplannotes.repository.UserRepository;
+import com.aiplannotes.security.AuthenticatedUser;
+import com.aiplannotes.service.ImportService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures a bulk import of 50k Markdown notes into one user against the
+ * in-memory test database: parsing, category resolution and the batched
+ * note and pending review inserts. Compare per note with createNote in
+ * {@link PersistenceBatchingBenchmark}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class NoteImportBenchmark {
+
+    private static final int NOTES = 50_000;
+
+    @Param({"100", "500"})
+    private int batchSize;
+
+    private ConfigurableApplicationContext context;
+    private ImportService importService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private byte[] markdown;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(AiPlanNotesApplication.class)
+                .profiles("test")
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:import-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "--import.batch-size=" + batchSize);
+        importService = context.getBean(ImportService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User user = new User();
+        user.setUsername("benchmark");
+        user.setPasswordHash("unused");
+        user.setEmail("benchmark@example.com");
+        userId = context.getBean(UserRepository.class).save(user).getId();
+
+        // JMH may run the benchmark methods on a different thread than this setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, "benchmark"), null, List.of()));
+
+        StringBuilder file = new StringBuilder();
+        for (int i = 0; i < NOTES; i++) {
+            file.append("# Note ").append(i).append("\n\n")
+                    .append("Imported benchmark content for note ").append(i).append(".\n\n");
+        }
+        markdown = file.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Every import starts from an empty account.
+     */
+    @Setup(Level.Invocation)
+    public void deleteNotes() {
+        jdbcTemplate.update("DELETE FROM pending_reviews WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM notes WHERE user_id = ?", userId);
+        jdbcTemplate.update("DELETE FROM categories WHERE user_id = ?", userId);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Object importMarkdown() {
+        String jobId = importService.createJob().getJobId();
+        return importService.importNotes(jobId, "markdown", "Imported", new ByteArrayInputStream(markdown));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NoteImportBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
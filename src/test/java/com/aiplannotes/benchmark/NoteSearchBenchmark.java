@@ -0,0 +1,91 @@
+package com.aiplannotes.benchmark;
+
+import com.aiplannotes.search.InvertedIndex;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Search latency of one user's in-memory note index by index size, for a
+ * common English word, a common Chinese word (two bigrams) and a mixed
+ * three-term query. Notes are generated with a skewed word distribution:
+ * a title of five words and a body of 80 English words and 60 Chinese
+ * characters.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = "-Xmx2g")
+@State(Scope.Benchmark)
+public class NoteSearchBenchmark {
+
+    private static final int VOCABULARY = 20_000;
+
+    @Param({"10000", "100000"})
+    private int notes;
+
+    @Param({"english", "chinese", "mixed"})
+    private String query;
+
+    private InvertedIndex index;
+    private String queryText;
+
+    @Setup(Level.Trial)
+    public void buildIndex() {
+        Random random = new Random(42);
+        String[] words = new String[VOCABULARY];
+        for (int i = 0; i < VOCABULARY; i++) {
+            StringBuilder word = new StringBuilder();
+            for (int c = 4 + random.nextInt(5); c > 0; c--) {
+                word.append((char) ('a' + random.nextInt(26)));
+            }
+            words[i] = word.toString();
+        }
+
+        index = new InvertedIndex();
+        for (long noteId = 1; noteId <= notes; noteId++) {
+            StringBuilder title = new StringBuilder();
+            for (int w = 0; w < 5; w++) {
+                title.append(words[skewed(random, VOCABULARY)]).append(' ');
+            }
+            StringBuilder content = new StringBuilder();
+            for (int w = 0; w < 80; w++) {
+                content.append(words[skewed(random, VOCABULARY)]).append(' ');
+            }
+            for (int c = 0; c < 60; c++) {
+                // 3000 common CJK ideographs
+                content.append((char) (0x4E00 + skewed(random, 3000)));
+            }
+            index.put(noteId, title.toString(), content.toString());
+        }
+
+        // Frequent terms, so the postings read are long
+        String chinese = new String(new char[]{(char) 0x4E00, (char) 0x4E01, (char) 0x4E02});
+        queryText = switch (query) {
+            case "english" -> words[0];
+            case "chinese" -> chinese;
+            default -> words[1] + " " + words[50] + " " + chinese.substring(0, 2);
+        };
+    }
+
+    // Roughly Zipf-distributed index in [0, size)
+    private static int skewed(Random random, int size) {
+        return (int) Math.min(size - 1, Math.floor(Math.pow(size, random.nextDouble())) - 1);
+    }
+
+    @Benchmark
+    public Object search() {
+        return index.search(queryText, 0, 20);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NoteSearchBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,122 @@
+package com.aiplannotes.benchmark;
+
+import com.aiplannotes.AiPlanNotesApplication;
+import com.aiplannotes.dto.CreateNoteRequest;
+import com.aiplannotes.dto.SubmitReviewRequest;
+import com.aiplannotes.entity.User;
+import com.aiplannotes.repository.UserRepository;
+import com.aiplannotes.security.AuthenticatedUser;
+import com.aiplannotes.service.NoteService;
+import com.aiplannotes.service.ReviewService;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures write throughput of createNote (note + first pending review) and of
+ * bulk review submission against the in-memory test database, with Hibernate
+ * JDBC batching off ({@code batched=false}, one statement per row as with the
+ * old IDENTITY ids) and on ({@code batched=true}, batch_size 50 with ordered
+ * inserts and updates).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PersistenceBatchingBenchmark {
+
+    private static final int BATCH_REVIEWS = 100;
+
+    @Param({"false", "true"})
+    private boolean batched;
+
+    private ConfigurableApplicationContext context;
+    private NoteService noteService;
+    private ReviewService reviewService;
+    private JdbcTemplate jdbcTemplate;
+    private Long userId;
+    private List<SubmitReviewRequest> reviews;
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(AiPlanNotesApplication.class)
+                .profiles("test")
+                // Command line arguments, so they take precedence over application.yml
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "--spring.jpa.properties.hibernate.jdbc.batch_size=" + (batched ? 50 : 1),
+                        "--spring.jpa.properties.hibernate.order_inserts=" + batched,
+                        "--spring.jpa.properties.hibernate.order_updates=" + batched);
+        noteService = context.getBean(NoteService.class);
+        reviewService = context.getBean(ReviewService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        User user = new User();
+        user.setUsername("benchmark");
+        user.setPasswordHash("unused");
+        user.setEmail("benchmark@example.com");
+        userId = context.getBean(UserRepository.class).save(user).getId();
+
+        // JMH may run the benchmark methods on a different thread than this setup
+        SecurityContextHolder.setStrategyName(SecurityContextHolder.MODE_GLOBAL);
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, "benchmark"), null, List.of()));
+
+        reviews = new ArrayList<>(BATCH_REVIEWS);
+        for (int i = 0; i < BATCH_REVIEWS; i++) {
+            Long noteId = noteService.createNote(new CreateNoteRequest(
+                    "Review " + i, "Benchmark content", null, false, 10)).getId();
+            reviews.add(new SubmitReviewRequest(noteId, "REMEMBERED", 10));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        SecurityContextHolder.clearContext();
+        context.close();
+    }
+
+    @Benchmark
+    public Object createNote() {
+        return noteService.createNote(new CreateNoteRequest(
+                "Benchmark note", "Benchmark content", null, false, 10));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_REVIEWS)
+    public Object submitReviewBatch(DueReviews dueReviews) {
+        return reviewService.submitReviews(reviews);
+    }
+
+    /**
+     * Puts the benchmark reviews back on today's schedule before every batch submission.
+     */
+    @State(Scope.Benchmark)
+    public static class DueReviews {
+
+        @Setup(Level.Invocation)
+        public void makeDue(PersistenceBatchingBenchmark benchmark) {
+            benchmark.jdbcTemplate.update(
+                    "UPDATE pending_reviews SET scheduled_for = CURRENT_DATE WHERE user_id = ?", benchmark.userId);
+        }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PersistenceBatchingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
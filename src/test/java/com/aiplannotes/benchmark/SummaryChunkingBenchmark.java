@@ -0,0 +1,88 @@
+package com.aiplannotes.benchmark;
+
+import com.aiplannotes.AiPlanNotesApplication;
+import com.aiplannotes.ai.IncrementalSummarizer;
+import com.aiplannotes.ai.SummaryCache;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Summary latency by note size, summarising the whole note in one call
+ * ({@code chunked=false}) versus splitting it into chunks that are summarised
+ * in parallel and reduced ({@code chunked=true}). Uses the stub generator,
+ * whose latency grows with the input length like a model's prompt processing.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 4)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SummaryChunkingBenchmark {
+
+    // No note has this id, so there are no stored chunk summaries to reuse
+    private static final long NOTE_ID = -1L;
+
+    @Param({"2000", "8000", "32000", "128000"})
+    private int noteLength;
+
+    @Param({"false", "true"})
+    private boolean chunked;
+
+    private ConfigurableApplicationContext context;
+    private IncrementalSummarizer summarizer;
+    private String content;
+    private final AtomicLong invocations = new AtomicLong();
+
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(AiPlanNotesApplication.class)
+                .profiles("test")
+                // Command line arguments, so they take precedence over application.yml
+                .run(
+                        "--server.port=0",
+                        "--spring.datasource.url=jdbc:h2:mem:chunking;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH",
+                        "--ai.summary.generator=stub",
+                        "--ai.summary.stub.latency=50ms",
+                        "--ai.summary.stub.per-kilochar-latency=20ms",
+                        "--ai.summary.batch.max-size=4",
+                        "--ai.summary.max-concurrent-calls=4",
+                        "--ai.summary.chunking.min-length=" + (chunked ? 2000 : Integer.MAX_VALUE));
+        summarizer = context.getBean(IncrementalSummarizer.class);
+
+        // Chinese sentences in paragraphs of about 3000 characters, so chunks are cut on sentence boundaries
+        StringBuilder builder = new StringBuilder();
+        for (int sentence = 0; builder.length() < noteLength; sentence++) {
+            builder.append("这是复习笔记的第").append(sentence).append("句，用于测试长笔记的分块总结。");
+            if (sentence % 120 == 119) {
+                builder.append("\n\n");
+            }
+        }
+        content = builder.substring(0, noteLength);
+    }
+
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+
+    @Benchmark
+    public Object summarize() {
+        // A new title every time, so no chunk is served from the summary cache
+        String title = "Benchmark " + invocations.incrementAndGet();
+        return summarizer.summarize(NOTE_ID, title, content, SummaryCache.contentHash(title, content));
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SummaryChunkingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,109 @@
+package com.aiplannotes.benchmark;
+
+import com.aiplannotes.ai.StubSummaryGenerator;
+import com.aiplannotes.ai.SummaryGateway;
+import com.aiplannotes.ai.SummaryStream;
+import com.aiplannotes.ai.SummaryStreamListener;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Time to first token versus time to the complete summary when streaming
+ * through the gateway, using the stub generator with a fixed first-token
+ * latency and a configurable interval between tokens.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SummaryStreamingBenchmark {
+
+    private static final String CONTENT = "A long note whose summary is streamed to the client token by token. ".repeat(4);
+
+    @Param({"50"})
+    private long firstTokenLatencyMillis;
+
+    @Param({"2", "10"})
+    private long tokenIntervalMillis;
+
+    private SummaryGateway gateway;
+
+    @Setup
+    public void setUp() {
+        StubSummaryGenerator generator = new StubSummaryGenerator();
+        ReflectionTestUtils.setField(generator, "latency", Duration.ofMillis(firstTokenLatencyMillis));
+        ReflectionTestUtils.setField(generator, "perItemLatency", Duration.ZERO);
+        ReflectionTestUtils.setField(generator, "tokenSize", 4);
+        ReflectionTestUtils.setField(generator, "tokenInterval", Duration.ofMillis(tokenIntervalMillis));
+
+        gateway = new SummaryGateway();
+        ReflectionTestUtils.setField(gateway, "summaryGenerator", generator);
+        ReflectionTestUtils.setField(gateway, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(gateway, "maxBatchSize", 1);
+        ReflectionTestUtils.setField(gateway, "maxBatchWait", Duration.ZERO);
+        ReflectionTestUtils.setField(gateway, "callTimeout", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(gateway, "maxConcurrentCalls", 16);
+        ReflectionTestUtils.setField(gateway, "failureThreshold", 5);
+        ReflectionTestUtils.setField(gateway, "openDuration", Duration.ofSeconds(30));
+        ReflectionTestUtils.invokeMethod(gateway, "init");
+    }
+
+    @TearDown
+    public void tearDown() {
+        ReflectionTestUtils.invokeMethod(gateway, "shutdown");
+    }
+
+    @Benchmark
+    public String timeToFirstToken() {
+        CompletableFuture<String> firstToken = new CompletableFuture<>();
+        SummaryStream stream = gateway.stream("Benchmark", CONTENT, listener(firstToken, new CompletableFuture<>()));
+        try {
+            return firstToken.join();
+        } finally {
+            stream.cancel();
+        }
+    }
+
+    @Benchmark
+    public String timeToFullSummary() {
+        CompletableFuture<String> summary = new CompletableFuture<>();
+        gateway.stream("Benchmark", CONTENT, listener(new CompletableFuture<>(), summary));
+        return summary.join();
+    }
+
+    private static SummaryStreamListener listener(CompletableFuture<String> firstToken, CompletableFuture<String> summary) {
+        return new SummaryStreamListener() {
+            @Override
+            public void onToken(String token) {
+                firstToken.complete(token);
+            }
+
+            @Override
+            public void onComplete(String summaryText) {
+                summary.complete(summaryText);
+            }
+
+            @Override
+            public void onError(RuntimeException e) {
+                firstToken.completeExceptionally(e);
+                summary.completeExceptionally(e);
+            }
+        };
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(SummaryStreamingBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
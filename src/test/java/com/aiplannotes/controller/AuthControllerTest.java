@@ -13,6 +13,7 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
 
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
@@ -168,4 +169,35 @@ class AuthControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.code").value(400));
     }
+
+    @Test
+    void testTokenRejectedAfterUserDeleted() throws Exception {
+        RegisterRequest registerRequest = new RegisterRequest(
+                "testuser",
+                "password123",
+                "test@example.com"
+        );
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(registerRequest)));
+
+        LoginRequest loginRequest = new LoginRequest("testuser", "password123");
+        String loginResponse = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(loginRequest)))
+                .andReturn().getResponse().getContentAsString();
+        String token = objectMapper.readTree(loginResponse).get("data").get("token").asText();
+
+        // Warm the user ID cache
+        mockMvc.perform(get("/api/categories")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        // Deleting the user must evict the cached ID
+        userRepository.deleteAll();
+
+        mockMvc.perform(get("/api/categories")
+                .header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+    }
 }
@@ -1,9 +1,14 @@
 package com.aiplannotes.controller;
 
+import com.aiplannotes.ai.SummaryCache;
 import com.aiplannotes.dto.*;
-import com.aiplannotes.entity.ReviewRecord;
+import com.aiplannotes.entity.AiSummary;
+import com.aiplannotes.entity.AiSummaryChunk;
 import com.aiplannotes.repository.*;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.aiplannotes.service.SummaryBackfillService;
+import com.fasterxml.jackson.databind.JsonNode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,71 +16,43 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.ActiveProfiles;
-import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.ZipInputStream;
+
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @SpringBootTest
 @AutoConfigureMockMvc
 @ActiveProfiles("test")
-class CoreModulesIntegrationTest {
-
-    @Autowired
-    private MockMvc mockMvc;
+class CoreModulesIntegrationTest extends IntegrationTestSupport {
 
     @Autowired
-    private ObjectMapper objectMapper;
+    private SummaryCache summaryCache;
 
     @Autowired
-    private UserRepository userRepository;
+    private SummaryBackfillService summaryBackfillService;
 
     @Autowired
-    private CategoryRepository categoryRepository;
+    private JobCheckpointRepository jobCheckpointRepository;
 
     @Autowired
-    private NoteRepository noteRepository;
+    private AiSummaryChunkRepository aiSummaryChunkRepository;
 
     @Autowired
-    private ReviewRecordRepository reviewRecordRepository;
-
-    @Autowired
-    private AiSummaryRepository aiSummaryRepository;
-
-    private String jwtToken;
+    private MeterRegistry meterRegistry;
 
     @BeforeEach
     void setUp() throws Exception {
-        // Clean up database
-        reviewRecordRepository.deleteAll();
-        aiSummaryRepository.deleteAll();
-        noteRepository.deleteAll();
-        categoryRepository.deleteAll();
-        userRepository.deleteAll();
-
-        // Register and login a test user
-        RegisterRequest registerRequest = new RegisterRequest(
-                "testuser",
-                "password123",
-                "test@example.com"
-        );
-
-        mockMvc.perform(post("/api/auth/register")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(registerRequest)))
-                .andExpect(status().isCreated());
-
-        LoginRequest loginRequest = new LoginRequest("testuser", "password123");
-        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
-                .contentType(MediaType.APPLICATION_JSON)
-                .content(objectMapper.writeValueAsString(loginRequest)))
-                .andExpect(status().isOk())
-                .andReturn();
-
-        String loginResponse = loginResult.getResponse().getContentAsString();
-        jwtToken = objectMapper.readTree(loginResponse).get("data").get("token").asText();
+        jwtToken = registerAndLogin("testuser", "test@example.com");
     }
 
     // ========== Category Tests ==========
@@ -374,6 +351,86 @@ class CoreModulesIntegrationTest {
                 .andExpect(jsonPath("$.data", hasSize(2)));
     }
 
+    @Test
+    void testGetNotesKeysetPagination() throws Exception {
+        for (int i = 1; i <= 3; i++) {
+            mockMvc.perform(post("/api/notes")
+                    .header("Authorization", "Bearer " + jwtToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(
+                            new CreateNoteRequest("Note " + i, "Content " + i, null, false, 10))))
+                    .andExpect(status().isCreated());
+        }
+
+        // First page, newest first
+        MvcResult firstPage = mockMvc.perform(get("/api/notes?limit=2")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].title").value("Note 3"))
+                .andExpect(jsonPath("$.data[1].title").value("Note 2"))
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(header().exists("X-Next-Cursor"))
+                .andReturn();
+
+        String cursor = firstPage.getResponse().getHeader("X-Next-Cursor");
+
+        // Last page has no continuation token; total count switched off
+        mockMvc.perform(get("/api/notes?limit=2&includeTotal=false&cursor=" + cursor)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].title").value("Note 1"))
+                .andExpect(header().doesNotExist("X-Next-Cursor"))
+                .andExpect(header().doesNotExist("X-Total-Count"));
+
+        // Oldest first
+        mockMvc.perform(get("/api/notes?limit=2&sort=oldest")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].title").value("Note 1"));
+
+        mockMvc.perform(get("/api/notes?cursor=not-a-cursor")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+
+        // A newest-first cursor cannot continue an oldest-first listing
+        mockMvc.perform(get("/api/notes?limit=2&sort=oldest&cursor=" + cursor)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testGetNotesListTruncatesSummaryPreview() throws Exception {
+        CreateNoteRequest noteRequest = new CreateNoteRequest(
+                "Long Note", "长".repeat(300), null, true, 30
+        );
+        MvcResult createResult = mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(noteRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        Long noteId = objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .get("data").get("id").asLong();
+
+        // Uncategorized note without a summary has no preview
+        mockMvc.perform(get("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(1)))
+                .andExpect(jsonPath("$.data[0].aiSummaryPreview").doesNotExist());
+
+        awaitSummaryJob(summarize(noteId));
+
+        mockMvc.perform(get("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data[0].id").value(noteId))
+                .andExpect(jsonPath("$.data[0].aiSummaryPreview").value("长".repeat(100) + "..."));
+    }
+
     // ========== Review/Task Tests ==========
 
     @Test
@@ -424,6 +481,96 @@ class CoreModulesIntegrationTest {
                 .andExpect(jsonPath("$.data.nextReviewDate").exists());
     }
 
+    @Test
+    void testSubmitReviewAdvancesPendingAndAppendsHistory() throws Exception {
+        CreateNoteRequest noteRequest = new CreateNoteRequest(
+                "Test Note", "Test Content", null, true, 30
+        );
+        MvcResult createResult = mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(noteRequest)))
+                .andExpect(status().isCreated())
+                .andReturn();
+
+        Long noteId = objectMapper.readTree(createResult.getResponse().getContentAsString())
+                .get("data").get("id").asLong();
+
+        // Creating a note schedules a review but writes no history
+        assertEquals(0, reviewRecordRepository.count());
+
+        mockMvc.perform(post("/api/reviews/submit")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SubmitReviewRequest(noteId, "REMEMBERED", 35))))
+                .andExpect(status().isOk());
+
+        assertEquals(1, reviewRecordRepository.count());
+
+        // The note is no longer due today, and moved to stage 2
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(0)));
+
+        mockMvc.perform(get("/api/notes/" + noteId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.currentReviewRecord.stageNumber").value(2));
+
+        // A second submission for the same day is rejected
+        mockMvc.perform(post("/api/reviews/submit")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SubmitReviewRequest(noteId, "REMEMBERED", 35))))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void testSubmitReviewBatch() throws Exception {
+        Long[] noteIds = new Long[2];
+        for (int i = 0; i < 2; i++) {
+            CreateNoteRequest noteRequest = new CreateNoteRequest(
+                    "Batch Note " + i, "Test Content", null, true, 30
+            );
+            MvcResult createResult = mockMvc.perform(post("/api/notes")
+                    .header("Authorization", "Bearer " + jwtToken)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(objectMapper.writeValueAsString(noteRequest)))
+                    .andExpect(status().isCreated())
+                    .andReturn();
+            noteIds[i] = objectMapper.readTree(createResult.getResponse().getContentAsString())
+                    .get("data").get("id").asLong();
+        }
+
+        SubmitReviewBatchRequest batch = new SubmitReviewBatchRequest(List.of(
+                new SubmitReviewRequest(noteIds[0], "REMEMBERED", 20),
+                new SubmitReviewRequest(noteIds[1], "FORGOTTEN", 40),
+                new SubmitReviewRequest(999999L, "REMEMBERED", 10),
+                new SubmitReviewRequest(noteIds[0], "REMEMBERED", 20)
+        ));
+
+        mockMvc.perform(post("/api/reviews/submit-batch")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(batch)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(4)))
+                .andExpect(jsonPath("$.data[0].success").value(true))
+                .andExpect(jsonPath("$.data[0].nextReviewDate").exists())
+                .andExpect(jsonPath("$.data[1].success").value(true))
+                .andExpect(jsonPath("$.data[2].success").value(false))
+                .andExpect(jsonPath("$.data[3].success").value(false));
+
+        // Only the valid items were recorded
+        assertEquals(2, reviewRecordRepository.count());
+
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(0)));
+    }
+
     @Test
     void testSubmitReviewForgotten() throws Exception {
         // Create note
@@ -472,17 +619,169 @@ class CoreModulesIntegrationTest {
         Long noteId = objectMapper.readTree(createResult.getResponse().getContentAsString())
                 .get("data").get("id").asLong();
 
-        // Generate AI summary
+        // Generate AI summary: the request only queues a job
         GenerateSummaryRequest summaryRequest = new GenerateSummaryRequest(noteId);
-        mockMvc.perform(post("/api/ai/summarize")
+        MvcResult jobResult = mockMvc.perform(post("/api/ai/summarize")
                 .header("Authorization", "Bearer " + jwtToken)
                 .contentType(MediaType.APPLICATION_JSON)
                 .content(objectMapper.writeValueAsString(summaryRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.code").value(202))
+                .andExpect(jsonPath("$.data.jobId").exists())
+                .andExpect(jsonPath("$.data.noteId").value(noteId))
+                .andReturn();
+
+        String jobId = objectMapper.readTree(jobResult.getResponse().getContentAsString())
+                .get("data").get("jobId").asText();
+
+        JsonNode job = awaitSummaryJob(jobId);
+        assertEquals("SUCCEEDED", job.get("status").asText());
+        assertEquals("mock-v1.0", job.get("summary").get("modelUsed").asText());
+        assertEquals(noteRequest.getContent(), job.get("summary").get("summaryText").asText());
+        assertTrue(job.get("summary").hasNonNull("createdAt"));
+
+        // The summary is persisted on the note
+        mockMvc.perform(get("/api/notes/" + noteId)
+                .header("Authorization", "Bearer " + jwtToken))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$.message").value("AI summary generated successfully."))
-                .andExpect(jsonPath("$.data.summaryText").exists())
-                .andExpect(jsonPath("$.data.modelUsed").value("mock-v1.0"))
-                .andExpect(jsonPath("$.data.createdAt").exists());
+                .andExpect(jsonPath("$.data.aiSummary.summaryText").value(noteRequest.getContent()));
+    }
+
+    @Test
+    void testSummarizeSkipsUnchangedAndSharesIdenticalContent() throws Exception {
+        String content = "Identical content summarised once. " + System.nanoTime();
+        Long firstNoteId = createNote("Shared", content);
+        awaitSummaryJob(summarize(firstNoteId));
+
+        // Unchanged note: the stored summary is returned without queueing a job
+        mockMvc.perform(post("/api/ai/summarize")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new GenerateSummaryRequest(firstNoteId))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.data.summary.summaryText").value(content));
+
+        // Another note with the same title and content reuses the cached summary
+        long hitsBefore = summaryCache.getHitCount();
+        Long secondNoteId = createNote("Shared", content);
+        JsonNode job = awaitSummaryJob(summarize(secondNoteId));
+        assertEquals("SUCCEEDED", job.get("status").asText());
+        assertEquals(content, job.get("summary").get("summaryText").asText());
+        assertEquals(hitsBefore + 1, summaryCache.getHitCount());
+
+        // Changed content is summarised again
+        mockMvc.perform(put("/api/notes/" + firstNoteId)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UpdateNoteRequest("Shared", content + " Edited.", null, true, 30))))
+                .andExpect(status().isOk());
+        AiSummary regenerated = awaitStoredSummary(firstNoteId, "Shared", content + " Edited.");
+        assertEquals(content + " Edited.", regenerated.getSummaryText());
+    }
+
+    @Test
+    void testUpdateResummarisesOnlyChangedParagraphs() throws Exception {
+        String marker = " " + System.nanoTime();
+        List<String> paragraphs = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            paragraphs.add("第" + i + "段。" + "长笔记的内容。".repeat(100) + marker);
+        }
+        Long noteId = createNote("Long note", String.join("\n\n", paragraphs));
+        awaitSummaryJob(summarize(noteId));
+        assertEquals(4, aiSummaryChunkRepository.findByNoteIdOrderByChunkIndex(noteId).size());
+
+        // Edit one sentence of one paragraph
+        Counter summarisedChunks = meterRegistry.counter("ai.summary.chunks", "outcome", "summarised");
+        double summarisedBefore = summarisedChunks.count();
+        paragraphs.set(2, paragraphs.get(2) + "新增的一句话。");
+        String edited = String.join("\n\n", paragraphs);
+        mockMvc.perform(put("/api/notes/" + noteId)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateNoteRequest("Long note", edited, null, true, 30))))
+                .andExpect(status().isOk());
+
+        // Regenerated in the background from the one changed paragraph and the stored rest
+        awaitStoredSummary(noteId, "Long note", edited);
+        assertEquals(summarisedBefore + 1, summarisedChunks.count());
+        List<AiSummaryChunk> chunks = aiSummaryChunkRepository.findByNoteIdOrderByChunkIndex(noteId);
+        assertEquals(4, chunks.size());
+        assertEquals(SummaryCache.contentHash("Long note", paragraphs.get(2)), chunks.get(2).getChunkHash());
+        // Another note sharing those paragraphs gets them from the summary cache; only its new one is generated
+        paragraphs.add("第4段。" + "另一篇笔记的内容。".repeat(80) + marker);
+        Long copyId = createNote("Long note", String.join("\n\n", paragraphs));
+        awaitSummaryJob(summarize(copyId));
+        assertEquals(5, aiSummaryChunkRepository.findByNoteIdOrderByChunkIndex(copyId).size());
+        assertEquals(summarisedBefore + 2, summarisedChunks.count());
+    }
+
+    @Test
+    void testStreamAiSummary() throws Exception {
+        String content = "Streamed summary content. " + System.nanoTime();
+        Long noteId = createNote("Streamed", content);
+
+        MvcResult result = mockMvc.perform(post("/api/ai/summarize/stream")
+                .header("Authorization", "Bearer " + jwtToken)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new GenerateSummaryRequest(noteId))))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        String events = "";
+        for (int attempt = 0; attempt < 100 && !events.contains("event:done"); attempt++) {
+            Thread.sleep(50);
+            events = result.getResponse().getContentAsString();
+        }
+        assertTrue(events.contains("event:token"), events);
+        assertTrue(events.contains("event:done"), events);
+
+        // Saved once the stream completed
+        assertEquals(content, aiSummaryRepository.findByNoteId(noteId).orElseThrow().getSummaryText());
+    }
+
+    @Test
+    void testStreamAiSummaryForNonExistentNote() throws Exception {
+        mockMvc.perform(post("/api/ai/summarize/stream")
+                .header("Authorization", "Bearer " + jwtToken)
+                .accept(MediaType.TEXT_EVENT_STREAM, MediaType.APPLICATION_JSON)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new GenerateSummaryRequest(99999L))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSummaryBackfillCoversMissingAndStaleSummaries() throws Exception {
+        Long summarizedId = createNote("Summarized", "Original content");
+        awaitSummaryJob(summarize(summarizedId));
+        Long missingId = createNote("Missing", "Never summarized");
+
+        // Edit the summarized note so its summary becomes stale
+        mockMvc.perform(put("/api/notes/" + summarizedId)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UpdateNoteRequest("Summarized", "Edited content", null, true, 30))))
+                .andExpect(status().isOk());
+
+        summaryBackfillService.runBackfill();
+
+        assertEquals("Edited content", aiSummaryRepository.findByNoteId(summarizedId).orElseThrow().getSummaryText());
+        assertEquals("Never summarized", aiSummaryRepository.findByNoteId(missingId).orElseThrow().getSummaryText());
+        assertEquals(0, aiSummaryRepository.countBackfillCandidates(0L));
+        // The completed pass resets the checkpoint for the next run
+        assertEquals(0L, jobCheckpointRepository.findById("summary-backfill").orElseThrow().getLastId());
+    }
+
+    @Test
+    void testSummaryJobNotFound() throws Exception {
+        mockMvc.perform(get("/api/ai/jobs/unknown-job")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.code").value(404));
     }
 
     @Test
@@ -496,6 +795,169 @@ class CoreModulesIntegrationTest {
                 .andExpect(jsonPath("$.code").value(404));
     }
 
+    // ========== Search Tests ==========
+
+    @Test
+    void testSearchNotes() throws Exception {
+        Long calculusId = createNote("微积分基本定理", "该定理描述了定积分与不定积分之间的关系。Newton & Leibniz.");
+        Long algebraId = createNote("Linear algebra", "Matrices and vectors.");
+
+        mockMvc.perform(get("/api/notes/search")
+                .param("q", "积分")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.totalHits").value(1))
+                .andExpect(jsonPath("$.data.items[0].noteId").value(calculusId))
+                .andExpect(jsonPath("$.data.items[0].title").value("微<em>积分</em>基本定理"))
+                .andExpect(jsonPath("$.data.items[0].snippet").value(
+                        "该定理描述了定<em>积分</em>与不定<em>积分</em>之间的关系。Newton &amp; Leibniz."));
+
+        mockMvc.perform(get("/api/notes/search")
+                .param("q", "MATRICES")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.data.items[0].noteId").value(algebraId))
+                .andExpect(jsonPath("$.data.items[0].snippet").value("<em>Matrices</em> and vectors."));
+
+        // Updates and deletes are reflected at once
+        mockMvc.perform(put("/api/notes/" + algebraId)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UpdateNoteRequest("Linear algebra", "Eigenvalues.", null, true, 30))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/notes/" + calculusId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/notes/search")
+                .param("q", "matrices 积分")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.data.totalHits").value(0));
+        mockMvc.perform(get("/api/notes/search")
+                .param("q", "eigenvalues")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.data.items[0].noteId").value(algebraId));
+
+        // Other users never see these notes
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new RegisterRequest("searcher", "password123", "searcher@example.com"))))
+                .andExpect(status().isCreated());
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest("searcher", "password123"))))
+                .andReturn();
+        String otherToken = objectMapper.readTree(loginResult.getResponse().getContentAsString())
+                .get("data").get("token").asText();
+        mockMvc.perform(get("/api/notes/search")
+                .param("q", "eigenvalues")
+                .header("Authorization", "Bearer " + otherToken))
+                .andExpect(jsonPath("$.data.totalHits").value(0))
+                .andExpect(jsonPath("$.data.items", hasSize(0)));
+    }
+
+    @Test
+    void testSearchNotesWithoutQuery() throws Exception {
+        mockMvc.perform(get("/api/notes/search")
+                .param("q", "  ")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
+    // ========== Export Tests ==========
+
+    @Test
+    void testExportNotes() throws Exception {
+        MvcResult categoryResult = mockMvc.perform(post("/api/categories")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateCategoryRequest("导出"))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long categoryId = objectMapper.readTree(categoryResult.getResponse().getContentAsString())
+                .get("data").get("id").asLong();
+        MvcResult noteResult = mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new CreateNoteRequest("Exported", "Line one\nLine \"two\"", categoryId, true, 30))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        Long noteId = objectMapper.readTree(noteResult.getResponse().getContentAsString())
+                .get("data").get("id").asLong();
+        awaitSummaryJob(summarize(noteId));
+        mockMvc.perform(post("/api/reviews/submit")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SubmitReviewRequest(noteId, "REMEMBERED", 12))))
+                .andExpect(status().isOk());
+        Long plainId = createNote("Plain", "No category");
+
+        MvcResult result = mockMvc.perform(get("/api/export")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/x-ndjson"))
+                .andExpect(header().string("Content-Disposition", startsWith("attachment; filename=\"ai-plan-notes-testuser-")));
+        String ndjson = result.getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        List<JsonNode> lines = new ArrayList<>();
+        for (String line : ndjson.split("\n")) {
+            lines.add(objectMapper.readTree(line));
+        }
+        assertEquals(6, lines.size(), ndjson);
+        assertEquals("header", lines.get(0).get("type").asText());
+        assertEquals("testuser", lines.get(0).get("username").asText());
+        assertEquals("category", lines.get(1).get("type").asText());
+        assertEquals("导出", lines.get(1).get("name").asText());
+
+        JsonNode exported = lines.stream()
+                .filter(line -> line.path("type").asText().equals("note") && line.path("id").asLong() == noteId).findFirst().orElseThrow();
+        assertEquals("note", exported.get("type").asText());
+        assertEquals(categoryId, exported.get("categoryId").asLong());
+        assertEquals("Line one\nLine \"two\"", exported.get("content").asText());
+        assertEquals(2, exported.get("nextReview").get("stageNumber").asInt());
+        assertTrue(exported.get("summary").hasNonNull("summaryText"), exported.toString());
+        JsonNode plain = lines.stream()
+                .filter(line -> line.path("type").asText().equals("note") && line.path("id").asLong() == plainId).findFirst().orElseThrow();
+        assertTrue(plain.get("categoryId").isNull());
+        assertTrue(plain.get("summary").isNull());
+
+        assertEquals("review", lines.get(4).get("type").asText());
+        assertEquals(noteId, lines.get(4).get("noteId").asLong());
+        assertEquals("REMEMBERED", lines.get(4).get("result").asText());
+        assertEquals("end", lines.get(5).get("type").asText());
+        assertEquals(2, lines.get(5).get("notes").asInt());
+
+        // The zip holds the same NDJSON
+        result = mockMvc.perform(get("/api/export")
+                .param("format", "zip")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType("application/zip"));
+        try (ZipInputStream zip = new ZipInputStream(
+                new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertEquals("notes.ndjson", zip.getNextEntry().getName());
+            String zipped = new String(zip.readAllBytes(), StandardCharsets.UTF_8);
+            assertEquals(ndjson.replaceAll("\"exportedAt\":\"[^\"]+\"", ""),
+                    zipped.replaceAll("\"exportedAt\":\"[^\"]+\"", ""));
+        }
+    }
+
+    @Test
+    void testExportUnsupportedFormat() throws Exception {
+        mockMvc.perform(get("/api/export")
+                .param("format", "xml")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isBadRequest());
+    }
+
     // ========== Authorization Tests ==========
 
     @Test
@@ -543,4 +1005,16 @@ class CoreModulesIntegrationTest {
                 .content(objectMapper.writeValueAsString(updateRequest)))
                 .andExpect(status().isNotFound()); // Should not find the category for this user
     }
+
+    private AiSummary awaitStoredSummary(Long noteId, String title, String content) throws Exception {
+        String contentHash = SummaryCache.contentHash(title, content);
+        for (int attempt = 0; attempt < 100; attempt++) {
+            AiSummary summary = aiSummaryRepository.findByNoteId(noteId).orElseThrow();
+            if (!summary.getStale() && contentHash.equals(summary.getContentHash())) {
+                return summary;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Summary of note " + noteId + " was not regenerated");
+    }
 }
@@ -0,0 +1,144 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.*;
+import com.aiplannotes.repository.*;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Shared setup for the MockMvc integration tests: an empty database before each test,
+ * plus request helpers that act as the user whose token is in {@link #jwtToken}.
+ */
+abstract class IntegrationTestSupport {
+
+    @Autowired
+    protected MockMvc mockMvc;
+
+    @Autowired
+    protected ObjectMapper objectMapper;
+
+    @Autowired
+    protected UserRepository userRepository;
+
+    @Autowired
+    protected CategoryRepository categoryRepository;
+
+    @Autowired
+    protected NoteRepository noteRepository;
+
+    @Autowired
+    protected ReviewRecordRepository reviewRecordRepository;
+
+    @Autowired
+    protected AiSummaryRepository aiSummaryRepository;
+
+    protected String jwtToken;
+
+    @BeforeEach
+    void deleteAllData() {
+        reviewRecordRepository.deleteAll();
+        aiSummaryRepository.deleteAll();
+        noteRepository.deleteAll();
+        categoryRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    /**
+     * Register a user with the default password and return a fresh login token
+     */
+    protected String registerAndLogin(String username, String email) throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RegisterRequest(username, "password123", email))))
+                .andExpect(status().isCreated());
+        return login(username);
+    }
+
+    protected String login(String username) throws Exception {
+        MvcResult loginResult = mockMvc.perform(post("/api/auth/login")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new LoginRequest(username, "password123"))))
+                .andExpect(status().isOk())
+                .andReturn();
+        return data(loginResult).get("token").asText();
+    }
+
+    protected Long createCategory(String name) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/categories")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateCategoryRequest(name))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return data(result).get("id").asLong();
+    }
+
+    protected Long createNote(String title, String content) throws Exception {
+        return createNote(title, content, null);
+    }
+
+    protected Long createNote(String title, String content, Long categoryId) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateNoteRequest(title, content, categoryId, true, 30))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return data(result).get("id").asLong();
+    }
+
+    protected JsonNode getNote(Long noteId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/notes/" + noteId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        return data(result);
+    }
+
+    /**
+     * Start a summary job for the note and return its id
+     */
+    protected String summarize(Long noteId) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/ai/summarize")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new GenerateSummaryRequest(noteId))))
+                .andExpect(status().isAccepted())
+                .andReturn();
+        return data(result).get("jobId").asText();
+    }
+
+    /**
+     * Poll a summary job until it succeeds or fails
+     */
+    protected JsonNode awaitSummaryJob(String jobId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            MvcResult result = mockMvc.perform(get("/api/ai/jobs/" + jobId)
+                    .header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isOk())
+                    .andReturn();
+            JsonNode job = data(result);
+            String status = job.get("status").asText();
+            if (status.equals("SUCCEEDED") || status.equals("FAILED")) {
+                return job;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Summary job " + jobId + " did not finish");
+    }
+
+    protected JsonNode data(MvcResult result) throws Exception {
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).get("data");
+    }
+}
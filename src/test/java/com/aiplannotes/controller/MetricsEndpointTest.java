@@ -0,0 +1,134 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.*;
+import com.aiplannotes.entity.JobCheckpoint;
+import com.aiplannotes.repository.*;
+import com.aiplannotes.service.DueReviewBacklog;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * The Prometheus scrape endpoint: request, service and JWT timers with
+ * percentiles, the counters and gauges it should carry, and that scraping
+ * needs the scrape token.
+ */
+@SpringBootTest(properties = {
+        "metrics.prometheus.scrape-token=" + MetricsEndpointTest.SCRAPE_TOKEN,
+        // As in production: the published metrics must not rely on Hibernate statistics
+        "spring.jpa.properties.hibernate.generate_statistics=false"
+})
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+@ActiveProfiles("test")
+class MetricsEndpointTest extends IntegrationTestSupport {
+
+    static final String SCRAPE_TOKEN = "test-scrape-token";
+
+    @Autowired
+    private DueReviewBacklog dueReviewBacklog;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private JobCheckpointRepository jobCheckpointRepository;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtToken = registerAndLogin("metricsuser", "metrics@example.com");
+    }
+
+    @Test
+    void testPrometheusScrape() throws Exception {
+        mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new CreateNoteRequest("Metrics", "Due today", null, false, 10))))
+                .andExpect(status().isCreated());
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/tasks/today").header("Authorization", "Bearer " + jwtToken))
+                    .andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/tasks/today").header("Authorization", "Bearer not-a-jwt"))
+                .andExpect(status().is4xxClientError());
+        dueReviewBacklog.recount();
+
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + SCRAPE_TOKEN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        assertMetric(scrape, "http_server_requests_seconds\\{.*status=\"200\",uri=\"/api/tasks/today\",quantile=\"0.99\".*");
+        assertMetric(scrape, "http_server_requests_seconds_bucket\\{.*uri=\"/api/tasks/today\".*");
+        assertMetric(scrape, "service_calls_seconds_count\\{.*class=\"com.aiplannotes.service.NoteService\""
+                + ".*method=\"createNote\".*} 1.0");
+        assertMetric(scrape, "service_calls_seconds\\{.*method=\"getTodayTasks\".*quantile=\"0.95\".*");
+        assertMetric(scrape, "jwt_validation_seconds_count\\{.*} [1-9].*");
+        assertMetric(scrape, "jwt_validation_failures_total\\{.*reason=\"invalid\".*} 1.0");
+        assertMetric(scrape, "cache_gets_total\\{.*cache=\"todayTaskCache\".*result=\"hit\".*} 1.0");
+        assertMetric(scrape, "reviews_due_backlog\\{.*} 1.0");
+        assertMetric(scrape, "hikaricp_connections_active\\{.*");
+    }
+
+    @Test
+    void testSecondLevelCacheHitRatio() throws Exception {
+        Long noteId = createNote("Cached", "Category from the cache", createCategory("Cached"));
+        getNote(noteId);
+        getNote(noteId);
+
+        assertTrue(meterRegistry.get("hibernate.second.level.cache.hit.ratio").tag("region", "categories")
+                .gauge().value() > 0);
+        String scrape = mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + SCRAPE_TOKEN))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        assertMetric(scrape, "cache_gets_total\\{.*cache=\"categories\".*result=\"hit\".*} [1-9].*");
+        assertMetric(scrape, "hibernate_second_level_cache_hit_ratio\\{.*region=\"ai_summaries\".*");
+    }
+
+    @Test
+    void testBacklogIsRecountedByOneNodeAndSharedThroughItsCheckpoint() {
+        dueReviewBacklog.recount();
+
+        // As if another node had just recounted
+        JobCheckpoint checkpoint = jobCheckpointRepository.findById("due-review-backlog").orElseThrow();
+        checkpoint.setLastId(42L);
+        jobCheckpointRepository.save(checkpoint);
+        dueReviewBacklog.refresh();
+
+        assertEquals(42.0, meterRegistry.get("reviews.due.backlog").gauge().value());
+    }
+
+    @Test
+    void testPrometheusScrapeNeedsTheScrapeToken() throws Exception {
+        // Loopback is not trusted: a reverse proxy on the same host forwards from there
+        mockMvc.perform(get("/actuator/prometheus"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer wrong-token"))
+                .andExpect(status().isForbidden());
+        // A user's JWT does not open it either
+        mockMvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+        // Other actuator endpoints still need a token
+        mockMvc.perform(get("/actuator/metrics"))
+                .andExpect(status().isForbidden());
+    }
+
+    private static void assertMetric(String scrape, String regex) {
+        assertTrue(Pattern.compile("^" + regex + "$", Pattern.MULTILINE).matcher(scrape).find(),
+                () -> "No line matching " + regex);
+    }
+}
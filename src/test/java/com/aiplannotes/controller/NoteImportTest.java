@@ -0,0 +1,274 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.*;
+import com.aiplannotes.security.AuthenticatedUser;
+import com.aiplannotes.service.ImportService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Bulk import through /api/import/jobs, with a small batch size so uploads
+ * span several batches
+ */
+@SpringBootTest(properties = "import.batch-size=10")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class NoteImportTest extends IntegrationTestSupport {
+
+    @Autowired
+    private ImportService importService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtToken = registerAndLogin("importer");
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testImportMarkdown() throws Exception {
+        StringBuilder markdown = new StringBuilder();
+        for (int i = 1; i <= 24; i++) {
+            markdown.append("# Note ").append(i).append("\n\nBody of note ").append(i).append(".\n\n");
+        }
+        markdown.append("# Empty\n\n");
+        markdown.append("# Code sample #\n```\n# not a heading\n```\n");
+
+        String jobId = createJob();
+        mockMvc.perform(put("/api/import/jobs/" + jobId)
+                .param("format", "markdown")
+                .param("category", "Imported")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.TEXT_MARKDOWN)
+                .content(markdown.toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.data.recordsProcessed").value(26))
+                .andExpect(jsonPath("$.data.notesImported").value(25))
+                .andExpect(jsonPath("$.data.recordsSkipped").value(1))
+                .andExpect(jsonPath("$.data.categoriesCreated").value(1))
+                .andExpect(jsonPath("$.data.errors[0]").value("Line 97: Note content cannot be empty"));
+
+        Long categoryId = categoryIds().get(0);
+        mockMvc.perform(get("/api/notes")
+                .param("categoryId", categoryId.toString())
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(header().string("X-Total-Count", "25"));
+        // Imported notes are due today and searchable
+        mockMvc.perform(get("/api/tasks/today").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.data", hasSize(25)));
+        mockMvc.perform(get("/api/notes/search")
+                .param("q", "heading")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.data.items[0].title").value("Code sample"))
+                .andExpect(jsonPath("$.data.items[0].snippet").value(containsString("# not a <em>heading</em>")));
+    }
+
+    @Test
+    void testImportAnkiDecksIntoCategories() throws Exception {
+        mockMvc.perform(post("/api/categories")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateCategoryRequest("Vocabulary"))))
+                .andExpect(status().isCreated());
+
+        String anki = "#separator:tab\n" +
+                "#html:true\n" +
+                "#deck column:3\n" +
+                "ephemeral\tlasting a very short time<br>short-lived\tVocabulary\n" +
+                "\"tab\tand \"\"quotes\"\"\"\t\"two\nlines\"\tVocabulary\n" +
+                "Mitochondria\tpowerhouse of the cell &amp; more\tBiology\n" +
+                "\tno front\tBiology\n";
+
+        String jobId = createJob();
+        mockMvc.perform(put("/api/import/jobs/" + jobId)
+                .param("format", "anki")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.TEXT_PLAIN)
+                .content(anki))
+                .andExpect(jsonPath("$.data.notesImported").value(3))
+                .andExpect(jsonPath("$.data.recordsSkipped").value(1))
+                .andExpect(jsonPath("$.data.categoriesCreated").value(1));
+
+        List<Long> categoryIds = categoryIds();
+        assertEquals(2, categoryIds.size());
+        JsonNode vocabulary = notesIn(categoryIds.get(0));
+        assertEquals(2, vocabulary.size());
+        JsonNode quoted = noteDetail(vocabulary.get(1).get("id").asLong());
+        assertEquals("tab\tand \"quotes\"", quoted.get("title").asText());
+        assertEquals("two\nlines", quoted.get("content").asText());
+        assertEquals("lasting a very short time\nshort-lived",
+                noteDetail(vocabulary.get(0).get("id").asLong()).get("content").asText());
+        assertEquals("powerhouse of the cell & more",
+                noteDetail(notesIn(categoryIds.get(1)).get(0).get("id").asLong()).get("content").asText());
+    }
+
+    @Test
+    void testImportRestoresExport() throws Exception {
+        MvcResult categoryResult = mockMvc.perform(post("/api/categories")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateCategoryRequest("考研数学"))))
+                .andReturn();
+        Long categoryId = objectMapper.readTree(categoryResult.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .get("data").get("id").asLong();
+        MvcResult noteResult = mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new CreateNoteRequest("微积分", "定积分与不定积分", categoryId, true, 45))))
+                .andReturn();
+        Long noteId = objectMapper.readTree(noteResult.getResponse().getContentAsString(StandardCharsets.UTF_8))
+                .get("data").get("id").asLong();
+        mockMvc.perform(post("/api/reviews/submit")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SubmitReviewRequest(noteId, "REMEMBERED", 10))))
+                .andExpect(status().isOk());
+        JsonNode original = noteDetail(noteId);
+
+        MvcResult export = mockMvc.perform(get("/api/export").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(export)).andExpect(status().isOk());
+
+        jwtToken = registerAndLogin("restorer");
+        String jobId = createJob();
+        mockMvc.perform(put("/api/import/jobs/" + jobId)
+                .param("format", "ndjson")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .content(export.getResponse().getContentAsByteArray()))
+                .andExpect(jsonPath("$.data.notesImported").value(1))
+                .andExpect(jsonPath("$.data.categoriesCreated").value(1));
+
+        JsonNode restored = noteDetail(notesIn(categoryIds().get(0)).get(0).get("id").asLong());
+        assertEquals("考研数学", restored.get("categoryName").asText());
+        for (String field : List.of("title", "content", "isSupervised", "supervisionDurationSeconds", "currentReviewRecord")) {
+            assertEquals(original.get(field), restored.get(field), field);
+        }
+    }
+
+    @Test
+    void testResumeInterruptedUpload() throws Exception {
+        StringBuilder markdown = new StringBuilder();
+        for (int i = 1; i <= 30; i++) {
+            markdown.append("# Note ").append(i).append("\nBody ").append(i).append("\n");
+        }
+        byte[] file = markdown.toString().getBytes(StandardCharsets.UTF_8);
+        String jobId = createJob();
+
+        // The connection drops partway through the 15th note, during the second batch
+        int cut = markdown.indexOf("# Note 15") + 12;
+        InputStream dropped = new SequenceInputStream(new ByteArrayInputStream(file, 0, cut), new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("Connection reset");
+            }
+        });
+        Long userId = userRepository.findIdByUsername("importer").orElseThrow();
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                new AuthenticatedUser(userId, "importer"), null, List.of()));
+        assertThrows(RuntimeException.class, () -> importService.importNotes(jobId, "markdown", null, dropped));
+
+        mockMvc.perform(get("/api/import/jobs/" + jobId).header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.data.status").value("FAILED"))
+                .andExpect(jsonPath("$.data.recordsProcessed").value(10))
+                .andExpect(jsonPath("$.data.error").value(containsString("upload the same file again")));
+
+        // Sending the whole file again continues after the committed batch
+        mockMvc.perform(put("/api/import/jobs/" + jobId)
+                .param("format", "markdown")
+                .header("Authorization", "Bearer " + jwtToken)
+                .content(file))
+                .andExpect(jsonPath("$.data.status").value("SUCCEEDED"))
+                .andExpect(jsonPath("$.data.recordsProcessed").value(30))
+                .andExpect(jsonPath("$.data.notesImported").value(30));
+        assertEquals(30, noteRepository.count());
+        mockMvc.perform(get("/api/notes/search")
+                .param("q", "body")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(jsonPath("$.data.totalHits").value(30));
+
+        mockMvc.perform(put("/api/import/jobs/" + jobId)
+                .param("format", "markdown")
+                .header("Authorization", "Bearer " + jwtToken)
+                .content(file))
+                .andExpect(status().isConflict());
+
+        // Jobs are private to their user
+        String otherToken = registerAndLogin("intruder");
+        mockMvc.perform(get("/api/import/jobs/" + jobId).header("Authorization", "Bearer " + otherToken))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testUnsupportedImportFormat() throws Exception {
+        mockMvc.perform(put("/api/import/jobs/" + createJob())
+                .param("format", "docx")
+                .header("Authorization", "Bearer " + jwtToken)
+                .content("irrelevant"))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String createJob() throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/import/jobs").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.status").value("PENDING"))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).get("data").get("jobId").asText();
+    }
+
+    private List<Long> categoryIds() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/categories").header("Authorization", "Bearer " + jwtToken))
+                .andReturn();
+        JsonNode categories = objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).get("data");
+        return categories.findValues("id").stream().map(JsonNode::asLong).sorted().toList();
+    }
+
+    private JsonNode notesIn(Long categoryId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/notes")
+                .param("categoryId", categoryId.toString())
+                .param("sort", "oldest")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).get("data");
+    }
+
+    private JsonNode noteDetail(Long noteId) throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/notes/" + noteId).header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString(StandardCharsets.UTF_8)).get("data");
+    }
+
+    private String registerAndLogin(String username) throws Exception {
+        return registerAndLogin(username, username + "@example.com");
+    }
+}
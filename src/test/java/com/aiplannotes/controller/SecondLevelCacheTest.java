@@ -0,0 +1,133 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.*;
+import com.aiplannotes.entity.AiSummary;
+import com.fasterxml.jackson.databind.JsonNode;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Category and AiSummary are served from the second-level cache, and reads
+ * right after a write never see the previous version. Summaries come from
+ * the stub generator, slow enough that a regeneration never finishes before
+ * the read that follows an edit.
+ */
+@SpringBootTest(properties = {
+        "ai.summary.generator=stub",
+        "ai.summary.stub.latency=300ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SecondLevelCacheTest extends IntegrationTestSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtToken = registerAndLogin("testuser", "test@example.com");
+    }
+
+    @Test
+    void testRenamedCategoryIsNeverServedStale() throws Exception {
+        Long categoryId = createCategory("Math");
+        Long noteId = createNote("Limits", "Content", categoryId);
+
+        CacheRegionStatistics categoryRegion = entityManagerFactory.unwrap(SessionFactory.class)
+                .getStatistics().getDomainDataRegionStatistics("categories");
+        getNote(noteId);
+        long hitsBefore = categoryRegion.getHitCount();
+        assertEquals("Math", getNote(noteId).get("categoryName").asText());
+        assertTrue(categoryRegion.getHitCount() > hitsBefore, "category should come from the cache");
+
+        mockMvc.perform(put("/api/categories/" + categoryId)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateCategoryRequest("Calculus"))))
+                .andExpect(status().isOk());
+
+        assertEquals("Calculus", getNote(noteId).get("categoryName").asText());
+    }
+
+    @Test
+    void testDeletedCategoryIsNeverServedStale() throws Exception {
+        Long categoryId = createCategory("Temporary");
+        // Warm the cache through the by-id lookup
+        mockMvc.perform(put("/api/categories/" + categoryId)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateCategoryRequest("Still temporary"))))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(delete("/api/categories/" + categoryId)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new CreateNoteRequest("Orphan", "Content", categoryId, true, 30))))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void testSummaryIsNeverServedStaleAfterEdit() throws Exception {
+        Long noteId = createNote("Cached", "Original summary source", null);
+        awaitSummary(noteId, "[Cached] Original summary source", summarize(noteId));
+
+        // The cached findByNoteId result carries the entity state, so the read runs no ai_summaries SQL
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        EntityStatistics summaryStatistics = statistics.getEntityStatistics(AiSummary.class.getName());
+        getNote(noteId);
+        long queryHitsBefore = statistics.getQueryCacheHitCount();
+        long loadsBefore = summaryStatistics.getLoadCount();
+        assertEquals("[Cached] Original summary source",
+                getNote(noteId).get("aiSummary").get("summaryText").asText());
+        assertTrue(statistics.getQueryCacheHitCount() > queryHitsBefore, "summary should come from the cache");
+        assertEquals(loadsBefore, summaryStatistics.getLoadCount());
+
+        mockMvc.perform(put("/api/notes/" + noteId)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UpdateNoteRequest("Cached", "Edited summary source", null, true, 30))))
+                .andExpect(status().isOk());
+
+        // Until regenerated, the old text is served flagged as stale
+        JsonNode summary = getNote(noteId).get("aiSummary");
+        assertEquals("[Cached] Original summary source", summary.get("summaryText").asText());
+        assertTrue(summary.get("stale").asBoolean(), summary.toString());
+        awaitSummary(noteId, "[Cached] Edited summary source", null);
+    }
+
+    /**
+     * Wait until the note detail shows a current summary with the expected text
+     */
+    private void awaitSummary(Long noteId, String expectedText, String jobId) throws Exception {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            JsonNode summary = getNote(noteId).get("aiSummary");
+            if (summary != null && !summary.isNull() && !summary.get("stale").asBoolean()
+                    && summary.get("summaryText").asText().equals(expectedText)) {
+                return;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Summary of note " + noteId + " never became current"
+                + (jobId == null ? "" : " (job " + jobId + ")"));
+    }
+}
@@ -0,0 +1,91 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.*;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Per-request SQL statement counts and times: the dev response headers, the
+ * per-endpoint metrics and the slow-query log. Every statement counts as slow here.
+ */
+@SpringBootTest(properties = {
+        "sql.monitoring.response-headers=true",
+        "sql.monitoring.slow-query-threshold=0ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+@ExtendWith(OutputCaptureExtension.class)
+class SqlRequestStatsTest extends IntegrationTestSupport {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry.find("sql.request.statements").meters().forEach(meterRegistry::remove);
+        jwtToken = registerAndLogin("sqluser", "sql@example.com");
+    }
+
+    @Test
+    void testStatementsCountedPerRequest() throws Exception {
+        MvcResult cold = mockMvc.perform(get("/api/tasks/today").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andReturn();
+        int coldStatements = Integer.parseInt(cold.getResponse().getHeader("X-SQL-Count"));
+        assertTrue(coldStatements > 0);
+        assertTrue(Double.parseDouble(cold.getResponse().getHeader("X-SQL-Time-Ms")) > 0);
+
+        // Served from the today task cache
+        mockMvc.perform(get("/api/tasks/today").header("Authorization", "Bearer " + jwtToken))
+                .andExpect(header().string("X-SQL-Count", "0"))
+                .andExpect(header().string("X-SQL-Time-Ms", "0.000"));
+
+        DistributionSummary statements = meterRegistry.get("sql.request.statements")
+                .tag("method", "GET")
+                .tag("uri", "/api/tasks/today")
+                .summary();
+        assertEquals(2, statements.count());
+        assertEquals(coldStatements, statements.totalAmount());
+        assertEquals(2, meterRegistry.get("sql.request.duration").tag("uri", "/api/tasks/today").timer().count());
+    }
+
+    @Test
+    void testSlowQueryLoggedWithEndpoint(CapturedOutput output) throws Exception {
+        MvcResult created = mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new CreateNoteRequest("Slow", "Query", null, false, 10))))
+                .andReturn();
+        Long noteId = objectMapper.readTree(created.getResponse().getContentAsString())
+                .get("data").get("id").asLong();
+
+        // A response without a body still gets the headers
+        mockMvc.perform(delete("/api/notes/" + noteId).header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent())
+                .andExpect(header().exists("X-SQL-Count"));
+
+        assertTrue(output.getOut().lines().anyMatch(line -> line.contains("Slow SQL took")
+                && line.contains(" in DELETE /api/notes/{id}") && line.contains("delete from notes")));
+        assertTrue(meterRegistry.get("sql.slow.queries")
+                .tag("method", "DELETE")
+                .tag("uri", "/api/notes/{id}")
+                .counter().count() > 0);
+    }
+}
@@ -0,0 +1,82 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.UpdateNoteRequest;
+import com.aiplannotes.entity.AiSummary;
+import com.aiplannotes.service.SummaryBackfillService;
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Background regeneration of summaries made stale by edits. The stub generator
+ * is slow enough that a second edit lands while the first one's regeneration
+ * is still running.
+ */
+@SpringBootTest(properties = {
+        "ai.summary.generator=stub",
+        "ai.summary.stub.latency=300ms"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class SummaryRegenerationTest extends IntegrationTestSupport {
+
+    @Autowired
+    private SummaryBackfillService summaryBackfillService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtToken = registerAndLogin("testuser", "test@example.com");
+    }
+
+    private void updateContent(Long noteId, String content) throws Exception {
+        mockMvc.perform(put("/api/notes/" + noteId)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateNoteRequest("Draft", content, null, true, 30))))
+                .andExpect(status().isOk());
+    }
+
+    private AiSummary awaitSummaryText(Long noteId, String summaryText) throws InterruptedException {
+        for (int attempt = 0; attempt < 100; attempt++) {
+            AiSummary summary = aiSummaryRepository.findByNoteId(noteId).orElseThrow();
+            if (summary.getSummaryText().equals(summaryText)) {
+                return summary;
+            }
+            Thread.sleep(50);
+        }
+        throw new AssertionError("Summary of note " + noteId + " never became: " + summaryText);
+    }
+
+    @Test
+    void testEditDuringRegenerationLeavesSummaryStale() throws Exception {
+        Long noteId = createNote("Draft", "First version");
+        awaitSummaryJob(summarize(noteId));
+
+        updateContent(noteId, "Second version");
+        // Let the regeneration read the second version, then edit again while it generates
+        Thread.sleep(100);
+        updateContent(noteId, "Third version");
+
+        // The running job stores the second version's summary but does not claim it is current
+        AiSummary stored = awaitSummaryText(noteId, "[Draft] Second version");
+        assertTrue(stored.getStale());
+        JsonNode summary = getNote(noteId).get("aiSummary");
+        assertEquals("[Draft] Second version", summary.get("summaryText").asText());
+        assertTrue(summary.get("stale").asBoolean());
+
+        // The backfill picks it up again and brings it up to date
+        summaryBackfillService.runBackfill();
+        stored = aiSummaryRepository.findByNoteId(noteId).orElseThrow();
+        assertEquals("[Draft] Third version", stored.getSummaryText());
+        assertFalse(stored.getStale());
+    }
+}
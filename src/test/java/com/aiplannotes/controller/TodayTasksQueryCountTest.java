@@ -0,0 +1,135 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.*;
+import com.aiplannotes.service.TodayTaskCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Guards GET /api/tasks/today against N+1 regressions by counting the SQL
+ * statements Hibernate prepares while serving it, and checks that warm
+ * requests are served from the per-user cache without any SQL.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TodayTasksQueryCountTest extends IntegrationTestSupport {
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TodayTaskCache todayTaskCache;
+
+    private Long categoryId;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtToken = registerAndLogin("testuser", "test@example.com");
+        categoryId = createCategory("Math");
+    }
+
+    private Long createSummarizedNote(int index) throws Exception {
+        Long noteId = createNote("Note " + index, "Content " + index, categoryId);
+        // Wait for the summary to be written so it does not overlap the measured query
+        assertEquals("SUCCEEDED", awaitSummaryJob(summarize(noteId)).get("status").asText());
+        return noteId;
+    }
+
+    private long countStatementsForTodayTasks(int expectedTasks) throws Exception {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(expectedTasks)))
+                .andExpect(jsonPath("$.data[0].categoryName").value("Math"))
+                .andExpect(jsonPath("$.data[0].aiSummary").exists());
+
+        return statistics.getPrepareStatementCount();
+    }
+
+    private void evictTodayTasks() {
+        todayTaskCache.invalidate(userRepository.findIdByUsername("testuser").orElseThrow());
+    }
+
+    @Test
+    void testTodayTasksStatementCountDoesNotGrowWithTasks() throws Exception {
+        createSummarizedNote(1);
+        long singleTask = countStatementsForTodayTasks(1);
+
+        for (int i = 2; i <= 10; i++) {
+            createSummarizedNote(i);
+        }
+        evictTodayTasks();
+        long manyTasks = countStatementsForTodayTasks(10);
+
+        assertEquals(1, singleTask, "today tasks should be served by a single query");
+        assertEquals(singleTask, manyTasks, "statement count must not grow with the number of tasks");
+    }
+
+    @Test
+    void testWarmTodayTasksReflectWritesWithoutQueries() throws Exception {
+        Long edited = createSummarizedNote(1);
+        Long deleted = createSummarizedNote(2);
+        Long reviewed = createSummarizedNote(3);
+        countStatementsForTodayTasks(3);
+
+        // Each write updates the cached list in place. The edit leaves title
+        // and content alone so no summary regeneration overlaps the measurement.
+        createSummarizedNote(4);
+        mockMvc.perform(put("/api/notes/" + edited)
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new UpdateNoteRequest("Note 1", "Content 1", categoryId, false, 60))))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/notes/" + deleted)
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+        mockMvc.perform(post("/api/reviews/submit")
+                .header("Authorization", "Bearer " + jwtToken)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SubmitReviewRequest(reviewed, "REMEMBERED", 10))))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        MvcResult result = mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data", hasSize(2)))
+                .andExpect(jsonPath("$.data[0].noteId").value(edited))
+                .andExpect(jsonPath("$.data[0].isSupervised").value(false))
+                .andExpect(jsonPath("$.data[0].supervisionDurationSeconds").value(60))
+                .andExpect(jsonPath("$.data[0].aiSummary").value("Content 1"))
+                .andExpect(jsonPath("$.data[1].title").value("Note 4"))
+                .andExpect(jsonPath("$.data[1].aiSummary").value("Content 4"))
+                .andReturn();
+        assertEquals(0, statistics.getPrepareStatementCount(), "a warm request must not run any SQL");
+
+        // The in-place result matches a fresh load
+        String warm = result.getResponse().getContentAsString();
+        evictTodayTasks();
+        String cold = mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andReturn().getResponse().getContentAsString();
+        assertEquals(cold, warm);
+    }
+}
@@ -0,0 +1,119 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.security.TokenVersionRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "jwt.trusted-token.enabled=true")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class TrustedTokenAuthTest extends IntegrationTestSupport {
+
+    @Autowired
+    private TokenVersionRegistry tokenVersionRegistry;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jwtToken = registerAndLogin("testuser", "test@example.com");
+    }
+
+    @Test
+    void testTrustedTokenAuthenticates() throws Exception {
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testRevokedTokenRejected() throws Exception {
+        mockMvc.perform(post("/api/auth/revoke")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+
+        // A fresh login is issued with the new version
+        String newToken = login("testuser");
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void testLoginAfterRevocationOnAnotherNode() throws Exception {
+        // This node caches the version the first token was issued with
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isOk());
+        Long userId = userRepository.findByUsername("testuser").orElseThrow().getId();
+        // Revoked by another node: only the database has the new version
+        transactionTemplate.executeWithoutResult(status -> userRepository.incrementTokenVersion(userId));
+
+        String newToken = login("testuser");
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
+        // Still accepted once this node reloads the revocation
+        tokenVersionRegistry.refresh();
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + newToken))
+                .andExpect(status().isOk());
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testTokenRejectedAfterUserDeleted() throws Exception {
+        userRepository.deleteAll();
+
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testReloadDoesNotUndoANewerRevocation() throws Exception {
+        Long userId = userRepository.findByUsername("testuser").orElseThrow().getId();
+        // Revoked on this node after the snapshot below was read from the database
+        tokenVersionRegistry.update(userId, 5);
+        tokenVersionRegistry.refresh();
+
+        mockMvc.perform(get("/api/tasks/today")
+                .header("Authorization", "Bearer " + jwtToken))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void testUnknownUserIsLookedUpOnce() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long queries = statistics.getQueryExecutionCount();
+
+        assertFalse(tokenVersionRegistry.isCurrent(-42L, 0));
+        assertFalse(tokenVersionRegistry.isCurrent(-42L, 0));
+
+        assertEquals(queries + 1, statistics.getQueryExecutionCount());
+    }
+}
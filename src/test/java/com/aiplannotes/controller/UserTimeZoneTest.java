@@ -0,0 +1,129 @@
+package com.aiplannotes.controller;
+
+import com.aiplannotes.dto.*;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Primary;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Review dates follow each user's own calendar. The clock is fixed at noon
+ * UTC, when it is already the next day in Kiritimati (UTC+14) and still the
+ * same day in Pago Pago (UTC-11).
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserTimeZoneTest extends IntegrationTestSupport {
+
+    private static final Instant NOW = Instant.parse("2026-03-01T12:00:00Z");
+
+    @TestConfiguration
+    static class FixedClockConfig {
+
+        @Bean
+        @Primary
+        Clock fixedClock() {
+            return Clock.fixed(NOW, ZoneOffset.UTC);
+        }
+    }
+
+    @Test
+    void testReviewsAreScheduledOnEachUsersLocalDate() throws Exception {
+        String east = registerAndLoginInZone("eastuser", "Pacific/Kiritimati");
+        String west = registerAndLoginInZone("westuser", "Pacific/Pago_Pago");
+        Long eastNote = createNote(east);
+        Long westNote = createNote(west);
+
+        mockMvc.perform(get("/api/notes/" + eastNote).header("Authorization", "Bearer " + east))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.currentReviewRecord.scheduledFor").value("2026-03-02"));
+        mockMvc.perform(get("/api/notes/" + westNote).header("Authorization", "Bearer " + west))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.currentReviewRecord.scheduledFor").value("2026-03-01"));
+
+        // Both are due today for their owner
+        mockMvc.perform(get("/api/tasks/today").header("Authorization", "Bearer " + east))
+                .andExpect(jsonPath("$.data", hasSize(1)));
+        mockMvc.perform(get("/api/tasks/today").header("Authorization", "Bearer " + west))
+                .andExpect(jsonPath("$.data", hasSize(1)));
+
+        // The next review is a day later on the user's calendar
+        mockMvc.perform(post("/api/reviews/submit")
+                .header("Authorization", "Bearer " + east)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new SubmitReviewRequest(eastNote, "FORGOTTEN", 10))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.nextReviewDate").value("2026-03-03"));
+    }
+
+    @Test
+    void testChangingTimeZoneMovesToday() throws Exception {
+        String token = registerAndLoginInZone("movinguser", "Pacific/Pago_Pago");
+        createNote(token);
+
+        mockMvc.perform(put("/api/auth/time-zone")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateTimeZoneRequest("Pacific/Kiritimati"))))
+                .andExpect(status().isNoContent());
+
+        // Notes created from now on start on the new local date
+        Long noteId = createNote(token);
+        mockMvc.perform(get("/api/notes/" + noteId).header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.data.currentReviewRecord.scheduledFor").value("2026-03-02"));
+        mockMvc.perform(get("/api/tasks/today").header("Authorization", "Bearer " + token))
+                .andExpect(jsonPath("$.data", hasSize(2)));
+    }
+
+    @Test
+    void testUnknownTimeZoneIsRejected() throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new RegisterRequest("zoneuser", "password123", "zoneuser@example.com", "Mars/Olympus"))))
+                .andExpect(status().isBadRequest());
+
+        String token = registerAndLoginInZone("zoneuser", null);
+        mockMvc.perform(put("/api/auth/time-zone")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new UpdateTimeZoneRequest("Mars/Olympus"))))
+                .andExpect(status().isBadRequest());
+    }
+
+    private String registerAndLoginInZone(String username, String timeZone) throws Exception {
+        mockMvc.perform(post("/api/auth/register")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(
+                        new RegisterRequest(username, "password123", username + "@example.com", timeZone))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.data.timeZone").value(timeZone != null ? timeZone : "UTC"));
+
+        return login(username);
+    }
+
+    private Long createNote(String token) throws Exception {
+        MvcResult result = mockMvc.perform(post("/api/notes")
+                .header("Authorization", "Bearer " + token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new CreateNoteRequest("Note", "Content", null, false, 10))))
+                .andExpect(status().isCreated())
+                .andReturn();
+        return objectMapper.readTree(result.getResponse().getContentAsString()).get("data").get("id").asLong();
+    }
+}
@@ -0,0 +1,99 @@
+package com.aiplannotes.repository;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Checks with EXPLAIN (H2 in MySQL mode, schema from the Flyway migrations)
+ * that the review hot queries are served by their covering indexes. The
+ * statements are the ones Hibernate actually sends for the repository
+ * methods, captured with a statement inspector.
+ */
+@SpringBootTest(properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "com.aiplannotes.repository.ReviewIndexTest$StatementRecorder")
+@ActiveProfiles("test")
+class ReviewIndexTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2024, 1, 1);
+
+    /**
+     * Remembers every SQL statement Hibernate prepares
+     */
+    public static class StatementRecorder implements StatementInspector {
+
+        static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+        @Override
+        public String inspect(String sql) {
+            STATEMENTS.add(sql);
+            return sql;
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private PendingReviewRepository pendingReviewRepository;
+
+    /**
+     * @return the only statement sent to the database while running the repository call
+     */
+    private String capture(Runnable repositoryCall) {
+        StatementRecorder.STATEMENTS.clear();
+        transactionTemplate.executeWithoutResult(status -> repositoryCall.run());
+        assertEquals(1, StatementRecorder.STATEMENTS.size(), StatementRecorder.STATEMENTS.toString());
+        return StatementRecorder.STATEMENTS.get(0);
+    }
+
+    private String explain(String sql, Object... parameters) {
+        return String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + sql, String.class, parameters)).toLowerCase();
+    }
+
+    /**
+     * H2 prints the chosen index and the conditions it serves as a comment inside the plan
+     */
+    private String indexConditions(String plan, String indexName) {
+        int start = plan.indexOf("/* public." + indexName + ":");
+        assertTrue(start >= 0, plan);
+        return plan.substring(start, plan.indexOf("*/", start));
+    }
+
+    @Test
+    void testDueTaskQueryUsesPendingUserDueIndex() {
+        String sql = capture(() -> pendingReviewRepository.findTodayTasks(1L, TODAY));
+        String plan = explain(sql, 1L, TODAY);
+
+        String conditions = indexConditions(plan, "idx_pending_reviews_user_due");
+        assertTrue(conditions.contains("user_id ="), plan);
+        assertTrue(conditions.contains("scheduled_for <="), plan);
+        // The task list never reads the review history
+        assertFalse(plan.contains("\"public\".\"review_records\""), plan);
+    }
+
+    @Test
+    void testSubmitLookupReadsOnlyPendingReviewsByIndex() {
+        String sql = capture(() -> pendingReviewRepository.findDueForUpdate(1L, 1L, TODAY));
+        String plan = explain(sql, 1L, 1L, TODAY);
+
+        // H2 picks the primary key or the user/due index depending on its row estimates
+        assertFalse(plan.contains("tablescan"), plan);
+        assertFalse(plan.contains("\"public\".\"review_records\""), plan);
+        assertFalse(plan.contains("\"public\".\"notes\""), plan);
+    }
+}
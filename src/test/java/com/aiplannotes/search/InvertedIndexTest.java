@@ -0,0 +1,92 @@
+package com.aiplannotes.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tokenisation, BM25 ranking and highlighting of the in-memory note index.
+ */
+class InvertedIndexTest {
+
+    private static List<String> terms(List<Tokenizer.Token> tokens) {
+        return tokens.stream().map(Tokenizer.Token::getTerm).toList();
+    }
+
+    @Test
+    void testCjkTextIsSplitIntoCharactersAndBigrams() {
+        assertEquals(List.of("微", "微积", "积", "积分", "分", "calculus", "101"),
+                terms(Tokenizer.tokenize("微积分 Calculus-101")));
+        // Queries use bigrams, or the single character
+        assertEquals(List.of("微积", "积分"), terms(Tokenizer.tokenizeQuery("微积分")));
+        assertEquals(List.of("积", "x"), terms(Tokenizer.tokenizeQuery("积 x")));
+    }
+
+    @Test
+    void testRanksTitleAndFrequentMatchesFirst() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Cooking", "A recipe that mentions integrals once.");
+        index.put(2L, "Integrals", "Definite and indefinite.");
+        index.put(3L, "Analysis", "Integrals, integrals and more integrals.");
+        index.put(4L, "Unrelated", "Nothing to see.");
+
+        InvertedIndex.Result result = index.search("integrals", 0, 10);
+
+        assertEquals(3, result.getTotalHits());
+        assertEquals(List.of(2L, 3L, 1L), result.getHits().stream().map(InvertedIndex.Hit::getNoteId).toList());
+        assertEquals(List.of(3L), index.search("integrals", 1, 1).getHits().stream()
+                .map(InvertedIndex.Hit::getNoteId).toList());
+    }
+
+    @Test
+    void testReplacedAndRemovedNotesLeaveNoPostings() {
+        InvertedIndex index = new InvertedIndex();
+        index.put(1L, "Old title", "old words");
+        index.put(1L, "New title", "new words");
+
+        assertEquals(0, index.search("old", 0, 10).getTotalHits());
+        assertEquals(1, index.search("new", 0, 10).getTotalHits());
+
+        index.remove(1L);
+        assertEquals(0, index.size());
+        assertEquals(0, index.termCount());
+        assertTrue(index.putIfAbsent(2L, "a", "b"));
+        assertFalse(index.putIfAbsent(2L, "again", "ignored"));
+    }
+
+    @Test
+    void testEditsReuseOrdinals() {
+        InvertedIndex index = new InvertedIndex();
+        for (long id = 1; id <= 3; id++) {
+            index.put(id, "Note " + id, "shared words");
+        }
+        for (int edit = 0; edit < 100; edit++) {
+            index.put(2L, "Note 2", "shared words edit " + edit);
+        }
+        index.remove(1L);
+        index.put(4L, "Note 4", "shared words");
+
+        assertEquals(3, index.ordinalCount());
+        // Note 4 reuses ordinal 0, so it is inserted ahead of the existing postings
+        assertEquals(List.of(2L, 3L, 4L), index.search("shared", 0, 10).getHits().stream()
+                .map(InvertedIndex.Hit::getNoteId).sorted().toList());
+        assertEquals(1, index.search("edit 99", 0, 10).getHits().stream()
+                .filter(hit -> hit.getNoteId() == 2L).count());
+        assertEquals(0, index.search("note 1", 0, 10).getHits().stream()
+                .filter(hit -> hit.getNoteId() == 1L).count());
+    }
+
+    @Test
+    void testHighlightEscapesTextAndMergesOverlappingMatches() {
+        Set<String> terms = Set.of("微积", "积分", "b");
+        assertEquals("<em>微积分</em> &lt;<em>b</em>&gt;", Highlighter.highlight("微积分 <b>", terms));
+
+        String content = "x".repeat(100) + " target " + "y".repeat(100);
+        String snippet = Highlighter.snippet(content, Set.of("target"), 60);
+        assertTrue(snippet.startsWith("…") && snippet.endsWith("…"), snippet);
+        assertTrue(snippet.contains("<em>target</em>"), snippet);
+    }
+}
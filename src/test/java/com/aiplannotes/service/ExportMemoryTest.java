@@ -0,0 +1,141 @@
+package com.aiplannotes.service;
+
+import com.aiplannotes.dto.ExportEnd;
+import com.aiplannotes.dto.ExportHeader;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.util.FileSystemUtils;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Exports 200k notes and samples the heap that survives a full GC as the
+ * export progresses. Collecting the notes before writing them would retain
+ * well over 100 MB by the end; streaming keeps the retained heap flat. The
+ * database is file-backed, in a temporary directory, with lazy query execution
+ * so neither the seeded notes nor H2's own result sets live in this JVM's heap.
+ * Takes about a minute, so it only runs with {@code -Pslow-tests}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@Tag("slow")
+class ExportMemoryTest {
+
+    private static final int NOTES = 200_000;
+
+    private static final int CONTENT_LENGTH = 500;
+
+    private static final int SAMPLE_EVERY_LINES = 50_000;
+
+    private static final long MAX_RETAINED_GROWTH = 32L * 1024 * 1024;
+
+    private static final long USER_ID = 1L;
+
+    @Autowired
+    private ExportService exportService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static Path databaseDir;
+
+    @DynamicPropertySource
+    static void fileDatabase(DynamicPropertyRegistry registry) throws IOException {
+        databaseDir = Files.createTempDirectory("export-memory-test");
+        registry.add("spring.datasource.url", () -> "jdbc:h2:file:" + databaseDir.resolve("db") +
+                ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DEFAULT_NULL_ORDERING=HIGH;LAZY_QUERY_EXECUTION=TRUE");
+    }
+
+    @AfterAll
+    static void removeDatabase() throws IOException {
+        FileSystemUtils.deleteRecursively(databaseDir);
+    }
+
+    @Test
+    void testExportMemoryDoesNotGrowWithNoteCount() throws Exception {
+        seed();
+
+        long baseline = retainedHeap();
+        HeapSamplingOutputStream out = new HeapSamplingOutputStream();
+        ExportEnd end = exportService.write(USER_ID,
+                new ExportHeader(ExportService.FORMAT_VERSION, "bulkuser", "UTC", Timestamp.from(Instant.now())),
+                ExportService.Format.NDJSON, out);
+
+        assertEquals(NOTES, end.getNotes());
+        assertEquals(NOTES / 10, end.getReviews());
+        assertEquals(NOTES + NOTES / 10 + 2, out.lines);
+        assertTrue(out.bytes > (long) NOTES * CONTENT_LENGTH);
+        assertEquals(NOTES / SAMPLE_EVERY_LINES, out.samples.size());
+        for (long sample : out.samples) {
+            assertTrue(sample - baseline < MAX_RETAINED_GROWTH,
+                    "Retained heap grew by " + (sample - baseline) / 1024 / 1024 + " MB: " + out.samples);
+        }
+    }
+
+    private void seed() {
+        Timestamp now = Timestamp.from(Instant.now());
+        Date today = Date.valueOf(LocalDate.now());
+        jdbcTemplate.update("INSERT INTO users (id, username, password_hash, email, token_version, created_at, updated_at) " +
+                "VALUES (?, 'bulkuser', 'unused', 'bulkuser@example.com', 0, ?, ?)", USER_ID, now, now);
+        // Generated inside H2 so seeding does not dominate the test
+        jdbcTemplate.update("INSERT INTO notes (id, user_id, title, content, is_supervised, " +
+                "supervision_duration_seconds, created_at, updated_at) " +
+                "SELECT r.n, ?, CONCAT('Note ', r.n), REPEAT('x', ?), FALSE, 10, ?, ? FROM SYSTEM_RANGE(1, ?) r(n)",
+                USER_ID, CONTENT_LENGTH, now, now, NOTES);
+        jdbcTemplate.update("INSERT INTO pending_reviews (note_id, user_id, stage_number, scheduled_for) " +
+                "SELECT r.n, ?, 1, ? FROM SYSTEM_RANGE(1, ?) r(n)", USER_ID, today, NOTES);
+        jdbcTemplate.update("INSERT INTO review_records (id, note_id, user_id, stage_number, scheduled_for, " +
+                "reviewed_at, result, review_duration_seconds) " +
+                "SELECT r.n, r.n, ?, 1, ?, ?, 'REMEMBERED', 10 FROM SYSTEM_RANGE(1, ?) r(n) WHERE MOD(r.n, 10) = 0",
+                USER_ID, today, now, NOTES);
+    }
+
+    private static long retainedHeap() {
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Discards the export, counting lines and sampling the retained heap
+     */
+    private static class HeapSamplingOutputStream extends OutputStream {
+        final List<Long> samples = new ArrayList<>();
+        long lines;
+        long bytes;
+
+        @Override
+        public void write(int b) {
+            write(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            bytes += len;
+            for (int i = off; i < off + len; i++) {
+                if (b[i] == '\n' && ++lines % SAMPLE_EVERY_LINES == 0) {
+                    samples.add(retainedHeap());
+                }
+            }
+        }
+    }
+}
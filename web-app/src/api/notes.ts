@@ -1,5 +1,6 @@
 // 笔记 API
 import client from './client';
+import { storage } from '../utils/storage';
 import { 
   ApiResponse, 
   Note, 
@@ -7,16 +8,27 @@ import {
   CreateNoteRequest, 
   UpdateNoteRequest,
   AiSummary,
-  SummarizeRequest 
+  SummarizeRequest,
+  SummaryJob
 } from '../types';
 
 /**
- * 获取笔记列表（可按分类筛选）
+ * 获取笔记列表（可按分类筛选），按 X-Next-Cursor 游标逐页加载
  */
 export async function getNotes(categoryId?: number | null): Promise<NoteListItem[]> {
-  const params = categoryId ? { categoryId } : {};
-  const response = await client.get<ApiResponse<NoteListItem[]>>('/notes', { params });
-  return response.data.data;
+  const notes: NoteListItem[] = [];
+  let cursor: string | undefined;
+  do {
+    const params = {
+      ...(categoryId ? { categoryId } : {}),
+      ...(cursor ? { cursor } : {}),
+      includeTotal: false,
+    };
+    const response = await client.get<ApiResponse<NoteListItem[]>>('/notes', { params });
+    notes.push(...response.data.data);
+    cursor = response.headers['x-next-cursor'];
+  } while (cursor);
+  return notes;
 }
 
 /**
@@ -51,9 +63,87 @@ export async function deleteNote(id: number): Promise<void> {
 }
 
 /**
- * 生成 AI 总结
+ * 生成 AI 总结：提交后台任务并轮询直到完成
  */
 export async function generateSummary(data: SummarizeRequest): Promise<AiSummary> {
-  const response = await client.post<ApiResponse<AiSummary>>('/ai/summarize', data);
+  const response = await client.post<ApiResponse<SummaryJob>>('/ai/summarize', data);
+  let job = response.data.data;
+  while (job.status === 'PENDING' || job.status === 'RUNNING') {
+    await new Promise((resolve) => setTimeout(resolve, 500));
+    job = await getSummaryJob(job.jobId);
+  }
+  if (job.status === 'FAILED' || !job.summary) {
+    throw new Error(job.error || 'AI 总结生成失败');
+  }
+  return job.summary;
+}
+
+/**
+ * 查询 AI 总结任务状态
+ */
+export async function getSummaryJob(jobId: string): Promise<SummaryJob> {
+  const response = await client.get<ApiResponse<SummaryJob>>(`/ai/jobs/${jobId}`);
   return response.data.data;
 }
+
+/**
+ * 流式生成 AI 总结（Server-Sent Events），每收到一段文本调用 onToken，
+ * 完成后返回已保存的总结
+ */
+export async function streamSummary(
+  data: SummarizeRequest,
+  onToken: (token: string) => void,
+  signal?: AbortSignal
+): Promise<AiSummary> {
+  const token = storage.getToken();
+  const response = await fetch('/api/ai/summarize/stream', {
+    method: 'POST',
+    headers: {
+      'Content-Type': 'application/json',
+      Accept: 'text/event-stream, application/json',
+      ...(token ? { Authorization: `Bearer ${token}` } : {}),
+    },
+    body: JSON.stringify(data),
+    signal,
+  });
+  if (!response.ok || !response.body) {
+    const body = await response.json().catch(() => null);
+    throw new Error(body?.message || 'AI 总结生成失败');
+  }
+
+  const reader = response.body.getReader();
+  const decoder = new TextDecoder();
+  let buffer = '';
+  for (;;) {
+    const { done, value } = await reader.read();
+    if (done) break;
+    buffer += decoder.decode(value, { stream: true });
+
+    let boundary = buffer.indexOf('\n\n');
+    while (boundary >= 0) {
+      const rawEvent = buffer.slice(0, boundary);
+      buffer = buffer.slice(boundary + 2);
+      boundary = buffer.indexOf('\n\n');
+
+      let event = 'message';
+      const dataLines: string[] = [];
+      for (const line of rawEvent.split('\n')) {
+        if (line.startsWith('event:')) {
+          event = line.slice(6).trim();
+        } else if (line.startsWith('data:')) {
+          dataLines.push(line.slice(5));
+        }
+      }
+      const payload = dataLines.join('\n');
+
+      if (event === 'token') {
+        onToken(payload);
+      } else if (event === 'done') {
+        return JSON.parse(payload) as AiSummary;
+      } else if (event === 'error') {
+        throw new Error(JSON.parse(payload).message || 'AI 总结生成失败');
+      }
+    }
+  }
+  throw new Error('AI 总结生成中断');
+}
@@ -8,16 +8,18 @@ import { Button } from '../../components/ui/Button';
 import { Loading } from '../../components/ui/Loading';
 import { Modal } from '../../components/ui/Modal';
 import { useNoteStore } from '../../store/note';
+import { streamSummary } from '../../api/notes';
 import { formatDateTime } from '../../utils/date';
 
 export const NoteDetailPage: React.FC = () => {
   const { id } = useParams<{ id: string }>();
   const navigate = useNavigate();
-  const { currentNote, loading, fetchNoteById, deleteNote, generateSummary } = useNoteStore();
+  const { currentNote, loading, fetchNoteById, deleteNote } = useNoteStore();
   
   const [deleting, setDeleting] = useState(false);
   const [showDeleteModal, setShowDeleteModal] = useState(false);
   const [generating, setGenerating] = useState(false);
+  const [streamingText, setStreamingText] = useState<string | null>(null);
 
   useEffect(() => {
     if (id) {
@@ -60,13 +62,17 @@ export const NoteDetailPage: React.FC = () => {
     if (!currentNote) return;
     
     setGenerating(true);
+    setStreamingText('');
     try {
-      await generateSummary(currentNote.id);
-      alert('AI 总结生成成功！');
+      await streamSummary({ noteId: currentNote.id }, (token) =>
+        setStreamingText((text) => (text ?? '') + token)
+      );
+      await fetchNoteById(currentNote.id);
     } catch (error: any) {
       alert('生成失败: ' + error.message);
     } finally {
       setGenerating(false);
+      setStreamingText(null);
     }
   };
 
@@ -155,7 +161,11 @@ export const NoteDetailPage: React.FC = () => {
             )}
           </div>
 
-          {currentNote.aiSummary ? (
+          {streamingText ? (
+            <div className="prose max-w-none text-gray-700 whitespace-pre-wrap bg-purple-50 p-4 rounded-lg">
+              {streamingText}
+            </div>
+          ) : currentNote.aiSummary ? (
             <div>
               <div className="prose max-w-none text-gray-700 whitespace-pre-wrap bg-purple-50 p-4 rounded-lg">
                 {currentNote.aiSummary.summaryText}
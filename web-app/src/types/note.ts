@@ -58,3 +58,14 @@ export interface UpdateNoteRequest {
 export interface SummarizeRequest {
   noteId: number;
 }
+
+// AI 总结任务
+export type SummaryJobStatus = 'PENDING' | 'RUNNING' | 'SUCCEEDED' | 'FAILED';
+
+export interface SummaryJob {
+  jobId: string;
+  noteId: number;
+  status: SummaryJobStatus;
+  summary?: AiSummary | null;
+  error?: string | null;
+}